@@ -0,0 +1,88 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.mcp.model.CallToolParams;
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a tools/call request: the former untyped parse followed by convertValue(params, Map.class)
+ * against the single-pass typed decode, with and without Blackbird; and encoding its response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonRpcCodecBenchmark {
+
+    private static final String CALL_TOOL = """
+            {"jsonrpc":"2.0","method":"tools/call","id":3,
+             "params":{"name":"calculator","arguments":{"operation":"multiply","a":7,"b":6}}}""";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private ObjectMapper untypedMapper;
+    private ObjectReader typedReader;
+    private ObjectReader typedBlackbirdReader;
+    private ObjectWriter responseWriter;
+    private ObjectWriter responseBlackbirdWriter;
+    private JsonRpcResponse response;
+
+    @Setup
+    public void setup() {
+        untypedMapper = new ObjectMapper();
+        typedReader = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readerFor(JsonRpcRequest.class);
+        typedBlackbirdReader = new ObjectMapper()
+                .registerModule(new BlackbirdModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readerFor(JsonRpcRequest.class);
+        responseWriter = new ObjectMapper().writerFor(JsonRpcResponse.class);
+        responseBlackbirdWriter = new ObjectMapper().registerModule(new BlackbirdModule()).writerFor(JsonRpcResponse.class);
+        response = JsonRpcResponse.success(3, Map.of("content", List.of(Map.of("type", "text", "text", "42.0"))));
+    }
+
+    @Benchmark
+    public Object untypedThenConvertValue() throws IOException {
+        Map<String, Object> request = untypedMapper.readValue(CALL_TOOL, MAP_TYPE);
+        Map<?, ?> params = untypedMapper.convertValue(request.get("params"), Map.class);
+        return params.get("arguments");
+    }
+
+    @Benchmark
+    public Object typedSinglePass() throws IOException {
+        JsonRpcRequest request = typedReader.readValue(CALL_TOOL);
+        return ((CallToolParams) request.getParams()).arguments();
+    }
+
+    @Benchmark
+    public Object typedSinglePassBlackbird() throws IOException {
+        JsonRpcRequest request = typedBlackbirdReader.readValue(CALL_TOOL);
+        return ((CallToolParams) request.getParams()).arguments();
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeResponseBlackbird() throws IOException {
+        return responseBlackbirdWriter.writeValueAsBytes(response);
+    }
+}
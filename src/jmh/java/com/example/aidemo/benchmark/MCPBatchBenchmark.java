@@ -0,0 +1,76 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch execution: {@code handleBatch} with parallel fan-out or one item after another, and the streamed
+ * NDJSON batch, over a mix of list, call and read requests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MCPBatchBenchmark {
+
+    private static final String[] ITEMS = {
+            "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":%d}",
+            "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":%d,\"params\":{\"name\":\"calculator\",\"arguments\":{\"operation\":\"add\",\"a\":%1$d,\"b\":2}}}",
+            "{\"jsonrpc\":\"2.0\",\"method\":\"resources/read\",\"id\":%d,\"params\":{\"uri\":\"resource://example/data\"}}",
+            "{\"jsonrpc\":\"2.0\",\"method\":\"prompts/list\",\"id\":%d}"
+    };
+
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private MCPBenchmarkStack stack;
+    private List<JsonRpcRequest> requests;
+    private byte[] encodedBatch;
+
+    @Setup
+    public void setup() throws IOException {
+        MCPProperties properties = new MCPProperties();
+        properties.getBatch().setParallel(parallel);
+        stack = new MCPBenchmarkStack(properties);
+
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(String.format(ITEMS[i % ITEMS.length], i));
+        }
+        String batch = "[" + String.join(",", items) + "]";
+        encodedBatch = batch.getBytes(StandardCharsets.UTF_8);
+        ObjectReader reader = stack.objectMapper.readerForListOf(JsonRpcRequest.class);
+        requests = reader.readValue(encodedBatch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        stack.close();
+    }
+
+    @Benchmark
+    public List<JsonRpcResponse> handleBatch() {
+        return stack.batchService.handleBatch(requests);
+    }
+
+    @Benchmark
+    public void handleStreamingBatch() throws IOException {
+        stack.batchService.handleStreamingBatch(new ByteArrayInputStream(encodedBatch), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.aidemo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.aidemo.mcp.config.MCPExecutorConfig;
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.handler.MCPWebSocketHandler;
+import com.example.aidemo.mcp.handler.MCPWebSocketSessionManager;
+import com.example.aidemo.mcp.service.MCPBatchService;
+import com.example.aidemo.mcp.service.MCPMetrics;
+import com.example.aidemo.mcp.service.MCPRegistry;
+import com.example.aidemo.mcp.service.MCPService;
+import com.example.aidemo.mcp.service.PromptTemplateLoader;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.example.aidemo.mcp.service.ToolExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The MCP server wired by hand, without a Spring context, the way the application configures it: the
+ * Boot-style ObjectMapper with Blackbird, default {@link MCPProperties}, the real executors and a simple
+ * meter registry. Events are dropped, since no transport listens for them here.
+ */
+final class MCPBenchmarkStack implements AutoCloseable {
+
+    static {
+        // Request logging would dominate every measurement
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    final ObjectMapper objectMapper;
+    final MCPProperties properties;
+    final MCPRegistry registry;
+    final MCPService service;
+    final MCPBatchService batchService;
+    final MCPWebSocketSessionManager sessionManager;
+    final MCPWebSocketHandler webSocketHandler;
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final ThreadPoolTaskExecutor batchExecutor;
+    private final ThreadPoolTaskExecutor webSocketExecutor;
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private final ToolExecutor toolExecutor;
+
+    MCPBenchmarkStack() {
+        this(new MCPProperties());
+    }
+
+    MCPBenchmarkStack(MCPProperties properties) {
+        this.properties = properties;
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+        ApplicationEventPublisher events = event -> {
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        MCPExecutorConfig executors = new MCPExecutorConfig();
+        scheduler = executors.mcpScheduler(properties);
+        scheduler.initialize();
+        batchExecutor = executors.mcpBatchExecutor(properties);
+        batchExecutor.initialize();
+        webSocketExecutor = executors.mcpWebSocketExecutor(properties);
+        webSocketExecutor.initialize();
+        sendExecutor = executors.mcpWebSocketSendExecutor(properties);
+        sendExecutor.initialize();
+
+        registry = new MCPRegistry(objectMapper, events, properties, meterRegistry);
+        ResourceSubscriptions subscriptions = new ResourceSubscriptions(scheduler, events, properties);
+        toolExecutor = new ToolExecutor(properties, registry);
+        service = new MCPService(objectMapper, registry, subscriptions, toolExecutor, new MCPMetrics(meterRegistry, registry));
+        new PromptTemplateLoader(registry, new PathMatchingResourcePatternResolver(), properties).afterSingletonsInstantiated();
+
+        batchService = new MCPBatchService(service, batchExecutor, properties, objectMapper);
+        sessionManager = new MCPWebSocketSessionManager(sendExecutor, scheduler, subscriptions, properties, objectMapper);
+        webSocketHandler = new MCPWebSocketHandler(service, subscriptions, sessionManager, webSocketExecutor, properties, objectMapper);
+    }
+
+    @Override
+    public void close() {
+        toolExecutor.destroy();
+        batchExecutor.shutdown();
+        webSocketExecutor.shutdown();
+        sendExecutor.shutdown();
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.aidemo.benchmark;
+
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code MCPService.handleRequest} per JSON-RPC method, alone and as the full HTTP hot path of decoding the
+ * request, dispatching it and encoding the response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MCPDispatchBenchmark {
+
+    private static final Map<String, String> REQUESTS = Map.of(
+            "initialize", """
+                    {"jsonrpc":"2.0","method":"initialize","id":1,
+                     "params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"jmh","version":"1.0"}}}""",
+            "tools/list", """
+                    {"jsonrpc":"2.0","method":"tools/list","id":2}""",
+            "tools/call", """
+                    {"jsonrpc":"2.0","method":"tools/call","id":3,
+                     "params":{"name":"calculator","arguments":{"operation":"multiply","a":7,"b":6}}}""",
+            "resources/read", """
+                    {"jsonrpc":"2.0","method":"resources/read","id":4,"params":{"uri":"resource://example/data"}}""",
+            "prompts/get", """
+                    {"jsonrpc":"2.0","method":"prompts/get","id":5,
+                     "params":{"name":"code_review","arguments":{"code":"int x = 1;","language":"java"}}}""");
+
+    @Param({"initialize", "tools/list", "tools/call", "resources/read", "prompts/get"})
+    public String method;
+
+    private MCPBenchmarkStack stack;
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] encodedRequest;
+    private JsonRpcRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        stack = new MCPBenchmarkStack();
+        requestReader = stack.objectMapper.readerFor(JsonRpcRequest.class);
+        responseWriter = stack.objectMapper.writerFor(JsonRpcResponse.class);
+        encodedRequest = REQUESTS.get(method).getBytes();
+        request = requestReader.readValue(encodedRequest);
+        JsonRpcResponse response = stack.service.handleRequest(request);
+        if (response.getError() != null) {
+            throw new IllegalStateException(method + " failed: " + response.getError().getMessage());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        stack.close();
+    }
+
+    @Benchmark
+    public JsonRpcResponse handleRequest() {
+        return stack.service.handleRequest(request);
+    }
+
+    @Benchmark
+    public byte[] decodeHandleEncode() throws IOException {
+        JsonRpcRequest decoded = requestReader.readValue(encodedRequest);
+        return responseWriter.writeValueAsBytes(stack.service.handleRequest(decoded));
+    }
+}
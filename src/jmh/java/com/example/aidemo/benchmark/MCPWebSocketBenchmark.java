@@ -0,0 +1,154 @@
+package com.example.aidemo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket round trip through {@code MCPWebSocketHandler}: frame parsing on the calling thread, execution
+ * on the WebSocket executor and the write through the session's outbound queue, against an in-memory session
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MCPWebSocketBenchmark {
+
+    private static final String CALL_TOOL = """
+            {"jsonrpc":"2.0","method":"tools/call","id":3,
+             "params":{"name":"calculator","arguments":{"operation":"multiply","a":7,"b":6}}}""";
+
+    @Param({"text", "binary"})
+    public String framing;
+
+    private MCPBenchmarkStack stack;
+    private InMemorySession session;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        stack = new MCPBenchmarkStack();
+        session = new InMemorySession();
+        payload = CALL_TOOL.getBytes(StandardCharsets.UTF_8);
+        stack.webSocketHandler.afterConnectionEstablished(session);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        stack.webSocketHandler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        stack.close();
+    }
+
+    @Benchmark
+    public WebSocketMessage<?> roundTrip() throws Exception {
+        stack.webSocketHandler.handleMessage(session, "binary".equals(framing) ? new BinaryMessage(payload) : new TextMessage(payload));
+        return session.sent.take();
+    }
+
+    /**
+     * Open session that hands every sent message to the benchmark thread
+     */
+    private static final class InMemorySession implements WebSocketSession {
+        private final BlockingQueue<WebSocketMessage<?>> sent = new LinkedBlockingQueue<>();
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        @Override
+        public String getId() {
+            return "jmh";
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("ws://localhost/mcp/ws");
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return HttpHeaders.EMPTY;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            sent.add(message);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.aidemo.advisor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.advisor.observation.AdvisorObservationContext;
+import org.springframework.ai.chat.observation.ChatModelObservationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 顾问链耗时拆分
+ * Spring AI 已为每个顾问的 adviseCall / adviseStream 以及模型调用创建 Observation（链路追踪中的 span），
+ * 各顾问的 span 依次嵌套，总耗时里包含了后续顾问和模型的时间。
+ * 这里在 span 结束时减去直接子 span 的耗时，得到顾问自身的开销：
+ * <ul>
+ *     <li>记录为 {@code ai.advisor.self} 计时器（按 advisor 标签，含百分位直方图），用于定位 p99 中的顾问开销</li>
+ *     <li>DEBUG 级别下逐个输出日志，日志中带有 traceId，可与导出的链路对照</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AdvisorLatencyObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String START = AdvisorLatencyObservationHandler.class.getName() + ".start";
+    private static final String CHILDREN = AdvisorLatencyObservationHandler.class.getName() + ".children";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AdvisorLatencyObservationHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        // 顾问本身，以及顾问下面的模型调用；创建时父 span 可能尚未设置，所以按类型判断
+        return context instanceof AdvisorObservationContext || context instanceof ChatModelObservationContext;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(START, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long start = context.get(START);
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // 把耗时计入父顾问的子调用时间
+        if (parentContext(context) instanceof AdvisorObservationContext parent) {
+            parent.computeIfAbsent(CHILDREN, key -> new AtomicLong()).addAndGet(elapsed);
+        }
+
+        if (context instanceof AdvisorObservationContext advisor) {
+            AtomicLong children = advisor.get(CHILDREN);
+            long self = Math.max(0, elapsed - (children != null ? children.get() : 0));
+            timers.computeIfAbsent(advisor.getAdvisorName(), this::timer).record(self, TimeUnit.NANOSECONDS);
+            if (log.isDebugEnabled()) {
+                log.debug("advisor {} (order {}): total {} ms, self {} ms",
+                        advisor.getAdvisorName(), advisor.getOrder(), elapsed / 1_000_000.0, self / 1_000_000.0);
+            }
+        }
+    }
+
+    private Timer timer(String advisorName) {
+        return Timer.builder("ai.advisor.self")
+                .description("Time spent in a ChatClient advisor, excluding the advisors and model call it wraps")
+                .tag("advisor", advisorName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Observation.Context parentContext(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        return parent instanceof Observation observation ? observation.getContext() : null;
+    }
+}
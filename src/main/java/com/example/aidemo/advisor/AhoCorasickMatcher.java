@@ -0,0 +1,240 @@
+package com.example.aidemo.advisor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 编译后的 Aho-Corasick 自动机，用于敏感词匹配（忽略大小写）
+ * 文本只扫描一次，耗时与词典大小无关；编译后不可变，可被多个线程共享。
+ * 流式场景使用 {@link #scanner(char)}：词语可以跨分片匹配，只暂存可能构成词语开头的几个字符。
+ */
+public final class AhoCorasickMatcher {
+
+    private static final AhoCorasickMatcher EMPTY = compile(List.of());
+
+    // 每个状态的出边：按字符排序，二分查找
+    private final char[][] keys;
+    private final int[][] targets;
+    // 失配指针
+    private final int[] fail;
+    // 状态对应前缀的长度
+    private final int[] depth;
+    // 在该状态结束的最长词语长度（含失配链上的词语），0 表示没有词语结束
+    private final int[] matchLength;
+    private final int wordCount;
+
+    private AhoCorasickMatcher(char[][] keys, int[][] targets, int[] fail, int[] depth, int[] matchLength, int wordCount) {
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.depth = depth;
+        this.matchLength = matchLength;
+        this.wordCount = wordCount;
+    }
+
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 编译词典；空白词语被忽略
+     */
+    public static AhoCorasickMatcher compile(Collection<String> words) {
+        // 先构建字典树
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        children.add(new TreeMap<>());
+        depths.add(0);
+        lengths.add(0);
+        int wordCount = 0;
+        for (String word : words) {
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            String term = word.strip();
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                char c = Character.toLowerCase(term.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    depths.add(depths.get(state) + 1);
+                    lengths.add(0);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (lengths.get(state) == 0) {
+                wordCount++;
+            }
+            lengths.set(state, term.length());
+        }
+
+        int size = children.size();
+        char[][] keys = new char[size][];
+        int[][] targets = new int[size][];
+        int[] depth = new int[size];
+        int[] matchLength = new int[size];
+        for (int state = 0; state < size; state++) {
+            Map<Character, Integer> edges = children.get(state);
+            keys[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[state][i] = edge.getKey();
+                targets[state][i++] = edge.getValue();
+            }
+            depth[state] = depths.get(state);
+            matchLength[state] = lengths.get(state);
+        }
+
+        // 广度优先计算失配指针，并把失配链上的最长词语长度合并到每个状态
+        int[] fail = new int[size];
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(keys, targets, fail, depth, matchLength, wordCount);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                int child = targets[state][i];
+                int fallback = fail[state];
+                int next;
+                while ((next = matcher.child(fallback, keys[state][i])) < 0 && fallback != 0) {
+                    fallback = fail[fallback];
+                }
+                fail[child] = next >= 0 ? next : 0;
+                matchLength[child] = Math.max(matchLength[child], matchLength[fail[child]]);
+                queue.add(child);
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * 词典中的词语数量
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    public boolean isEmpty() {
+        return wordCount == 0;
+    }
+
+    /**
+     * 文本中是否包含任一词语
+     */
+    public boolean containsAny(CharSequence text) {
+        if (isEmpty()) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (matchLength[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 把文本中的词语逐字符替换为掩码字符
+     */
+    public String redact(String text, char mask) {
+        if (isEmpty()) {
+            return text;
+        }
+        Scanner scanner = scanner(mask);
+        return scanner.accept(text) + scanner.flush();
+    }
+
+    /**
+     * 为一个流创建扫描器
+     */
+    public Scanner scanner(char mask) {
+        return new Scanner(mask);
+    }
+
+    private int next(int state, char c) {
+        char key = Character.toLowerCase(c);
+        while (true) {
+            int next = child(state, key);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char key) {
+        int i = Arrays.binarySearch(keys[state], key);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    /**
+     * 流式扫描器，有状态且不是线程安全的，每个流使用一个新实例
+     * 以后的分片只可能与当前状态对应的末尾若干字符组成词语，所以只暂存这部分字符，其余立即输出。
+     */
+    public final class Scanner {
+        private final char mask;
+        private final StringBuilder pending = new StringBuilder();
+        private int state;
+        private boolean matched;
+
+        private Scanner(char mask) {
+            this.mask = mask;
+        }
+
+        /**
+         * 扫描一个分片，返回可以输出的文本（词语已替换为掩码，可能为空字符串）
+         */
+        public String accept(String chunk) {
+            for (int i = 0; i < chunk.length(); i++) {
+                pending.append(chunk.charAt(i));
+                state = next(state, chunk.charAt(i));
+                int length = matchLength[state];
+                if (length > 0) {
+                    matched = true;
+                    for (int j = pending.length() - length; j < pending.length(); j++) {
+                        pending.setCharAt(j, mask);
+                    }
+                }
+            }
+            int ready = pending.length() - depth[state];
+            String out = pending.substring(0, ready);
+            pending.delete(0, ready);
+            return out;
+        }
+
+        /**
+         * 流结束时输出暂存的字符
+         */
+        public String flush() {
+            String out = pending.toString();
+            pending.setLength(0);
+            state = 0;
+            return out;
+        }
+
+        /**
+         * 到目前为止是否匹配到任一词语
+         */
+        public boolean matched() {
+            return matched;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.aidemo.advisor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内容安全过滤顾问，替代 SafeGuardAdvisor
+ * 敏感词由 {@link SensitiveWordDictionary} 编译成 Aho-Corasick 自动机，每段文本只扫描一次，与词典大小无关。
+ * 用户输入命中时拦截请求（或脱敏后继续）；模型输出按配置拦截或脱敏，流式响应逐个分片过滤，
+ * 跨分片的敏感词也能匹配，只暂存可能构成敏感词开头的几个字符。
+ */
+@Slf4j
+@Component
+public class ContentFilterAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private static final int ORDER = 10;
+
+    private final SensitiveWordDictionary dictionary;
+    private final ContentFilterProperties properties;
+
+    public ContentFilterAdvisor(SensitiveWordDictionary dictionary, ContentFilterProperties properties) {
+        this.dictionary = dictionary;
+        this.properties = properties;
+    }
+
+    @Override
+    public String getName() {
+        return "ContentFilterAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        AhoCorasickMatcher matcher = dictionary.matcher();
+        if (matcher.isEmpty()) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+        ChatClientRequest checkedRequest = checkRequest(chatClientRequest, matcher);
+        if (checkedRequest == null) {
+            return failureResponse(chatClientRequest.context());
+        }
+
+        // 调用下一个advisor
+        ChatClientResponse response = callAdvisorChain.nextCall(checkedRequest);
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null) {
+            return response;
+        }
+
+        if (properties.getAction() == ContentFilterProperties.Action.BLOCK) {
+            boolean matched = chatResponse.getResults().stream()
+                    .map(generation -> generation.getOutput().getText())
+                    .anyMatch(text -> text != null && matcher.containsAny(text));
+            return matched ? failureResponse(response.context()) : response;
+        }
+
+        // 脱敏每个生成结果
+        List<Generation> redactedGenerations = chatResponse.getResults().stream()
+                .map(generation -> {
+                    String text = generation.getOutput().getText();
+                    return text == null ? generation : StreamTextRewriter.withText(generation, matcher.redact(text, properties.getMask()));
+                })
+                .toList();
+        return new ChatClientResponse(new ChatResponse(redactedGenerations, chatResponse.getMetadata()), response.context());
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        AhoCorasickMatcher matcher = dictionary.matcher();
+        if (matcher.isEmpty()) {
+            return streamAdvisorChain.nextStream(chatClientRequest);
+        }
+        ChatClientRequest checkedRequest = checkRequest(chatClientRequest, matcher);
+        if (checkedRequest == null) {
+            return Flux.just(failureResponse(chatClientRequest.context()));
+        }
+
+        // 调用下一个advisor获取流
+        Flux<ChatClientResponse> responseFlux = streamAdvisorChain.nextStream(checkedRequest);
+
+        // 每次订阅使用独立的扫描器；跨分片的敏感词开头被暂存，流结束时输出
+        return StreamTextRewriter.rewrite(responseFlux, () -> new OutputFilter(matcher.scanner(properties.getMask())));
+    }
+
+    /**
+     * 流式输出过滤：脱敏模式下输出脱敏后的文本，拦截模式下命中后输出提示并取消上游
+     */
+    private final class OutputFilter implements StreamTextRewriter.Filter {
+
+        private final AhoCorasickMatcher.Scanner scanner;
+
+        private OutputFilter(AhoCorasickMatcher.Scanner scanner) {
+            this.scanner = scanner;
+        }
+
+        @Override
+        public String filter(String text) {
+            return scanner.accept(text);
+        }
+
+        @Override
+        public String flush() {
+            return scanner.flush();
+        }
+
+        @Override
+        public ChatClientResponse stop(ChatClientResponse response) {
+            if (scanner.matched() && properties.getAction() == ContentFilterProperties.Action.BLOCK) {
+                log.info("模型输出包含敏感词，已拦截");
+                return failureResponse(response.context());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 检查用户输入
+     *
+     * @return 可以继续的请求（脱敏模式下为脱敏后的请求），需要拦截时返回null
+     */
+    private ChatClientRequest checkRequest(ChatClientRequest request, AhoCorasickMatcher matcher) {
+        String text = request.prompt().getUserMessage().getText();
+        if (text == null || !matcher.containsAny(text)) {
+            return request;
+        }
+        if (properties.getAction() == ContentFilterProperties.Action.BLOCK) {
+            log.info("用户输入包含敏感词，已拦截");
+            return null;
+        }
+        return request.mutate()
+                .prompt(request.prompt().augmentUserMessage(matcher.redact(text, properties.getMask())))
+                .build();
+    }
+
+    private ChatClientResponse failureResponse(Map<String, Object> context) {
+        ChatResponse chatResponse = ChatResponse.builder()
+                .generations(List.of(new Generation(new AssistantMessage(properties.getFailureResponse()))))
+                .build();
+        return ChatClientResponse.builder()
+                .chatResponse(chatResponse)
+                .context(new HashMap<>(context))
+                .build();
+    }
+}
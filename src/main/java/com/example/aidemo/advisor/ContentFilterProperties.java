@@ -0,0 +1,50 @@
+package com.example.aidemo.advisor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内容安全过滤配置（前缀 {@code content-filter}）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "content-filter")
+public class ContentFilterProperties {
+
+    /**
+     * 命中敏感词后的处理方式
+     */
+    public enum Action {
+        /**
+         * 拦截：请求不再调用模型，响应替换为 {@link #failureResponse}
+         */
+        BLOCK,
+        /**
+         * 脱敏：把敏感词逐字符替换为 {@link #mask}
+         */
+        REDACT
+    }
+
+    /**
+     * 配置中直接给出的敏感词
+     */
+    private List<String> words = new ArrayList<>();
+    /**
+     * 敏感词文件，每行一个词，# 开头为注释；与 words 合并使用
+     */
+    private String dictionary;
+    /**
+     * 敏感词文件变化时重新编译词典
+     */
+    private boolean watch = true;
+    private Action action = Action.BLOCK;
+    /**
+     * 拦截时返回的内容
+     */
+    private String failureResponse = "抱歉包含非法内容";
+    private char mask = '*';
+}
@@ -0,0 +1,256 @@
+package com.example.aidemo.advisor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大模型调用指标顾问
+ * 流式响应逐个分片计时，只保存几个计数和时间戳，不缓存响应内容：
+ * <ul>
+ *     <li>{@code llm.time.to.first.token}：从发起请求到第一个内容分片的时间</li>
+ *     <li>{@code llm.inter.token.latency}：相邻内容分片之间的间隔分布</li>
+ *     <li>{@code llm.tokens.per.second}：生成速度（补全token数 / 首个分片到结束的时间）</li>
+ *     <li>{@code llm.tokens.prompt}、{@code llm.tokens.completion}：响应元数据中的token用量</li>
+ *     <li>{@code llm.requests}：请求耗时，按 outcome（completed / error / cancelled）区分，可计算取消率</li>
+ * </ul>
+ * 所有指标带 model 和 endpoint 标签；endpoint 由调用方通过 {@link #ENDPOINT} 参数传入。
+ * 放在顾问链最内层，测量的是模型本身的输出（包括think内容）。
+ */
+@Component
+public class LlmMetricsAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * 顾问参数：当前请求所属的接口名称，作为 endpoint 标签
+     */
+    public static final String ENDPOINT = "llm_metrics_endpoint";
+
+    private static final String UNKNOWN = "unknown";
+    // 紧挨着调用模型的顾问执行
+    private static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final MeterRegistry meterRegistry;
+
+    public LlmMetricsAdvisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return "LlmMetricsAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        String endpoint = endpoint(chatClientRequest);
+        long start = System.nanoTime();
+        ChatClientResponse response;
+        try {
+            // 调用下一个advisor
+            response = callAdvisorChain.nextCall(chatClientRequest);
+        } catch (RuntimeException e) {
+            requestTimer(model(chatClientRequest, null), endpoint, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        String model = model(chatClientRequest, response.chatResponse());
+        requestTimer(model, endpoint, "completed").record(elapsed, TimeUnit.NANOSECONDS);
+        Usage usage = usage(response.chatResponse());
+        if (usage != null) {
+            recordUsage(model, endpoint, usage.getPromptTokens(), usage.getCompletionTokens(), elapsed);
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        // 调用下一个advisor获取流
+        Flux<ChatClientResponse> responseFlux = streamAdvisorChain.nextStream(chatClientRequest);
+        String endpoint = endpoint(chatClientRequest);
+
+        // 每次订阅单独计时
+        return Flux.defer(() -> {
+            StreamMetrics metrics = new StreamMetrics(chatClientRequest, endpoint);
+            return responseFlux
+                    .doOnNext(metrics::onChunk)
+                    .doFinally(metrics::onFinally);
+        });
+    }
+
+    /**
+     * 单个流式响应的计时状态，只在分片到达和流结束时更新
+     */
+    private final class StreamMetrics {
+        private final ChatClientRequest request;
+        private final String endpoint;
+        private final long start = System.nanoTime();
+        private long firstToken;
+        private long lastToken;
+        private int chunks;
+        private ChatResponse lastResponse;
+        private Usage usage;
+        private Timer interTokenLatency;
+
+        private StreamMetrics(ChatClientRequest request, String endpoint) {
+            this.request = request;
+            this.endpoint = endpoint;
+        }
+
+        private void onChunk(ChatClientResponse response) {
+            ChatResponse chatResponse = response.chatResponse();
+            if (chatResponse == null) {
+                return;
+            }
+            lastResponse = chatResponse;
+            Usage chunkUsage = usage(chatResponse);
+            if (chunkUsage != null) {
+                // 用量通常只在最后一个分片中给出
+                usage = chunkUsage;
+            }
+            if (!hasText(chatResponse)) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (chunks++ == 0) {
+                firstToken = now;
+                Timer.builder("llm.time.to.first.token")
+                        .description("Time from request to the first streamed content")
+                        .tags("model", model(request, chatResponse), "endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(now - start, TimeUnit.NANOSECONDS);
+            } else {
+                if (interTokenLatency == null) {
+                    interTokenLatency = Timer.builder("llm.inter.token.latency")
+                            .description("Time between consecutive streamed content chunks")
+                            .tags("model", model(request, chatResponse), "endpoint", endpoint)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofMillis(1))
+                            .maximumExpectedValue(Duration.ofSeconds(10))
+                            .register(meterRegistry);
+                }
+                interTokenLatency.record(now - lastToken, TimeUnit.NANOSECONDS);
+            }
+            lastToken = now;
+        }
+
+        private void onFinally(SignalType signal) {
+            String outcome = switch (signal) {
+                case ON_COMPLETE -> "completed";
+                case CANCEL -> "cancelled";
+                default -> "error";
+            };
+            String model = model(request, lastResponse);
+            requestTimer(model, endpoint, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (signal != SignalType.ON_COMPLETE || chunks == 0) {
+                return;
+            }
+
+            // 没有用量信息时，以内容分片数近似补全token数
+            Integer promptTokens = usage != null ? usage.getPromptTokens() : null;
+            Integer completionTokens = usage != null ? usage.getCompletionTokens() : Integer.valueOf(chunks);
+            recordUsage(model, endpoint, promptTokens, completionTokens, lastToken - firstToken);
+        }
+    }
+
+    private void recordUsage(String model, String endpoint, Integer promptTokens, Integer completionTokens, long generationNanos) {
+        if (promptTokens != null && promptTokens > 0) {
+            tokenSummary("llm.tokens.prompt", "Prompt tokens per request", model, endpoint).record(promptTokens);
+        }
+        if (completionTokens != null && completionTokens > 0) {
+            tokenSummary("llm.tokens.completion", "Completion tokens per request", model, endpoint).record(completionTokens);
+            if (generationNanos > 0) {
+                DistributionSummary.builder("llm.tokens.per.second")
+                        .description("Generation speed in completion tokens per second")
+                        .tags("model", model, "endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(completionTokens * 1e9 / generationNanos);
+            }
+        }
+    }
+
+    private DistributionSummary tokenSummary(String name, String description, String model, String endpoint) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("tokens")
+                .tags("model", model, "endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer requestTimer(String model, String endpoint, String outcome) {
+        return Timer.builder("llm.requests")
+                .description("Duration of LLM requests")
+                .tags("model", model, "endpoint", endpoint, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String endpoint(ChatClientRequest request) {
+        Object endpoint = request.context().get(ENDPOINT);
+        return endpoint != null ? endpoint.toString() : UNKNOWN;
+    }
+
+    /**
+     * 模型名优先取响应元数据，其次取请求选项
+     */
+    private static String model(ChatClientRequest request, ChatResponse response) {
+        if (response != null && response.getMetadata() != null) {
+            String model = response.getMetadata().getModel();
+            if (model != null && !model.isEmpty()) {
+                return model;
+            }
+        }
+        ChatOptions options = request.prompt().getOptions();
+        return options != null && options.getModel() != null ? options.getModel() : UNKNOWN;
+    }
+
+    /**
+     * 响应中的token用量，没有用量（全为0）时返回null
+     */
+    private static Usage usage(ChatResponse response) {
+        if (response == null) {
+            return null;
+        }
+        ChatResponseMetadata metadata = response.getMetadata();
+        Usage usage = metadata != null ? metadata.getUsage() : null;
+        if (usage == null || usage.getTotalTokens() == null || usage.getTotalTokens() == 0) {
+            return null;
+        }
+        return usage;
+    }
+
+    private static boolean hasText(ChatResponse response) {
+        if (response.getResults().isEmpty() || response.getResult().getOutput() == null) {
+            return false;
+        }
+        String text = response.getResult().getOutput().getText();
+        return text != null && !text.isEmpty();
+    }
+}
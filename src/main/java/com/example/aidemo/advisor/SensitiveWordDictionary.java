@@ -0,0 +1,98 @@
+package com.example.aidemo.advisor;
+
+import com.example.aidemo.support.DirectoryWatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 敏感词词典
+ * 由配置中的词语和词典文件编译成 {@link AhoCorasickMatcher}；开启 watch 时文件一变化就重新编译并整体替换，
+ * 正在进行的流继续使用它开始时的词典。文件有误时保留上一次成功编译的词典。
+ */
+@Slf4j
+@Component
+public class SensitiveWordDictionary implements InitializingBean, DisposableBean {
+
+    private final ContentFilterProperties properties;
+
+    private volatile AhoCorasickMatcher matcher = AhoCorasickMatcher.empty();
+    private DirectoryWatcher watcher;
+
+    public SensitiveWordDictionary(ContentFilterProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 当前词典
+     */
+    public AhoCorasickMatcher matcher() {
+        return matcher;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!StringUtils.hasText(properties.getDictionary())) {
+            matcher = AhoCorasickMatcher.compile(properties.getWords());
+            log.info("敏感词词典已加载：{} 个词", matcher.size());
+            return;
+        }
+        Path file = Paths.get(properties.getDictionary()).toAbsolutePath().normalize();
+        reload(file);
+        if (properties.isWatch()) {
+            watch(file);
+        }
+    }
+
+    /**
+     * 重新读取词典文件并编译
+     */
+    public void reload(Path file) {
+        List<String> words = new ArrayList<>(properties.getWords());
+        try {
+            if (Files.isRegularFile(file)) {
+                for (String line : Files.readAllLines(file)) {
+                    String word = line.strip();
+                    if (!word.isEmpty() && !word.startsWith("#")) {
+                        words.add(word);
+                    }
+                }
+            } else {
+                log.warn("敏感词文件 {} 不存在，仅使用配置中的词语", file);
+            }
+            matcher = AhoCorasickMatcher.compile(words);
+            log.info("敏感词词典已加载：{} 个词（{}）", matcher.size(), file);
+        } catch (IOException | RuntimeException e) {
+            // 保留上一次成功编译的词典
+            log.error("加载敏感词文件 {} 失败", file, e);
+        }
+    }
+
+    private void watch(Path file) {
+        try {
+            watcher = DirectoryWatcher.start(file.getParent(), "sensitive-word-watcher", changed -> {
+                if (changed.contains(file)) {
+                    reload(file);
+                }
+            });
+        } catch (IOException e) {
+            log.error("无法监听敏感词文件 {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
@@ -12,7 +12,6 @@ import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
-import java.util.Arrays;
 
 @Slf4j
 @Component
@@ -59,19 +58,4 @@ public class SimpleLoggerAdvisor implements CallAdvisor, StreamAdvisor {
         log.info("response: {}", chatClientResponse);
         String aaa = chatClientResponse.chatResponse().getResults().get(0).getOutput().getText() + "cm";
     }
-
-
-
-
-    private boolean containsSensitiveContent(String content) {
-        // 简单的敏感词检测
-        String[] sensitiveWords = {"暴力", "违法", "危险"};
-        return Arrays.stream(sensitiveWords)
-                .anyMatch(word -> content.toLowerCase().contains(word));
-    }
-
-    private String filterSensitiveContent(String content) {
-        // 简单的内容过滤
-        return content.replaceAll("(?i)(暴力|违法|危险)", "***");
-    }
 }
@@ -0,0 +1,114 @@
+package com.example.aidemo.advisor;
+
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 逐分片改写流式响应文本的公共逻辑，供 ThinkRemovalAdvisor 与 ContentFilterAdvisor 使用。
+ * 每次订阅创建一个新的有状态过滤器；每个分片只替换第一个生成结果的文本，元数据保持不变；
+ * 流结束时过滤器暂存的末尾文本沿用最后一个分片的元数据输出。
+ */
+public final class StreamTextRewriter {
+
+    /**
+     * 有状态的分片文本过滤器
+     */
+    public interface Filter {
+
+        /**
+         * 过滤一个分片的文本，返回可以立即输出的部分（可能为空字符串）
+         */
+        String filter(String text);
+
+        /**
+         * 流结束时调用，返回仍被暂存的文本
+         */
+        String flush();
+
+        /**
+         * 在 {@link #filter} 之后调用：返回非null时用它替换当前分片并结束流，暂存的文本不再输出
+         */
+        default ChatClientResponse stop(ChatClientResponse response) {
+            return null;
+        }
+    }
+
+    private StreamTextRewriter() {
+    }
+
+    /**
+     * 用过滤器改写流中每个分片的文本
+     */
+    public static Flux<ChatClientResponse> rewrite(Flux<ChatClientResponse> responses, Supplier<? extends Filter> filters) {
+        // 每次订阅使用独立的过滤器，状态不会在请求之间共享
+        return Flux.defer(() -> {
+            Filter filter = filters.get();
+            AtomicReference<ChatClientResponse> lastResponse = new AtomicReference<>();
+            AtomicBoolean stopped = new AtomicBoolean();
+
+            return responses
+                    .map(response -> {
+                        lastResponse.set(response);
+                        String text = text(response);
+                        if (text == null) {
+                            return response;
+                        }
+                        String visible = filter.filter(text);
+                        ChatClientResponse replacement = filter.stop(response);
+                        if (replacement != null) {
+                            stopped.set(true);
+                            return replacement;
+                        }
+                        return visible.equals(text) ? response : withText(response, visible);
+                    })
+                    // 分片被替换后取消上游
+                    .takeUntil(response -> stopped.get())
+                    // 流结束时输出过滤器暂存的末尾文本
+                    .concatWith(Mono.fromSupplier(() -> {
+                        if (stopped.get()) {
+                            return null;
+                        }
+                        String rest = filter.flush();
+                        ChatClientResponse last = lastResponse.get();
+                        return rest.isEmpty() || last == null ? null : withText(last, rest);
+                    }));
+        });
+    }
+
+    /**
+     * 分片中第一个生成结果的文本，没有时返回null
+     */
+    private static String text(ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null || chatResponse.getResults().isEmpty()) {
+            return null;
+        }
+        return chatResponse.getResults().get(0).getOutput().getText();
+    }
+
+    /**
+     * 替换分片中第一个生成结果的文本
+     */
+    public static ChatClientResponse withText(ChatClientResponse response, String text) {
+        ChatResponse chatResponse = response.chatResponse();
+        Generation generation = withText(chatResponse.getResults().get(0), text);
+        return new ChatClientResponse(new ChatResponse(List.of(generation), chatResponse.getMetadata()), response.context());
+    }
+
+    /**
+     * 替换生成结果的文本，保留消息与生成结果的元数据
+     */
+    public static Generation withText(Generation generation, String text) {
+        AssistantMessage message = new AssistantMessage(text, generation.getOutput().getMetadata());
+        return new Generation(message, generation.getMetadata());
+    }
+}
@@ -13,16 +13,12 @@ import org.springframework.ai.chat.model.Generation;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Pattern;
 
 
 @Component
 public class ThinkRemovalAdvisor implements CallAdvisor, StreamAdvisor {
 
-    private static final Pattern THINK_PATTERN = Pattern.compile("<think>.*?</think>\\s*", Pattern.DOTALL);
     private static final int ORDER = 2;
 
     @Override
@@ -59,43 +55,9 @@ public class ThinkRemovalAdvisor implements CallAdvisor, StreamAdvisor {
         // 调用下一个advisor获取流
         Flux<ChatClientResponse> responseFlux = streamAdvisorChain.nextStream(chatClientRequest);
 
-        // 用于累积内容的StringBuilder
-        StringBuilder contentBuffer = new StringBuilder();
-
-        return responseFlux.map(response -> {
-            ChatResponse chatResponse = response.chatResponse();
-
-            if (chatResponse != null && !chatResponse.getResults().isEmpty()) {
-                Generation generation = chatResponse.getResults().get(0);
-                AssistantMessage message = generation.getOutput();
-                String content = message.getText();
-
-                if (content != null) {
-                    contentBuffer.append(content);
-
-                    // 检查是否包含完整的think标签
-                    String bufferedContent = contentBuffer.toString();
-                    if (bufferedContent.contains("</think>")) {
-                        // 移除think标签并清空缓冲区
-                        String cleanedContent = THINK_PATTERN.matcher(bufferedContent).replaceAll("");
-                        contentBuffer.setLength(0);
-                        contentBuffer.append(cleanedContent);
-
-                        // 创建清理后的消息
-                        AssistantMessage cleanedMessage = new AssistantMessage(cleanedContent, message.getMetadata());
-                        Generation cleanedGeneration = new Generation(cleanedMessage, generation.getMetadata());
-                        ChatResponse cleanedChatResponse = new ChatResponse(
-                                List.of(cleanedGeneration),
-                                chatResponse.getMetadata()
-                        );
-
-                        return new ChatClientResponse(cleanedChatResponse, response.context());
-                    }
-                }
-            }
-
-            return response;
-        });
+        // 可见文本立即输出；think内容和可能的标签前缀不输出，分片本身保留以传递元数据。
+        // 流结束时输出被暂存的不完整标签前缀（例如以 "<th" 结尾的普通文本）
+        return StreamTextRewriter.rewrite(responseFlux, ThinkTagFilter::new);
     }
 
     private Generation processGeneration(Generation generation) {
@@ -107,11 +69,8 @@ public class ThinkRemovalAdvisor implements CallAdvisor, StreamAdvisor {
         }
 
         // 移除think标签及其内容
-        String cleanedContent = THINK_PATTERN.matcher(originalContent).replaceAll("").trim();
+        String cleanedContent = ThinkTagFilter.strip(originalContent).trim();
 
-        // 创建新的AssistantMessage
-        AssistantMessage newMessage = new AssistantMessage(cleanedContent, message.getMetadata());
-
-        return new Generation(newMessage, generation.getMetadata());
+        return StreamTextRewriter.withText(generation, cleanedContent);
     }
 }
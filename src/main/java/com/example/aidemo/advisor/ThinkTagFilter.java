@@ -0,0 +1,94 @@
+package com.example.aidemo.advisor;
+
+/**
+ * 增量过滤 {@code <think>...</think>} 的状态机。
+ * 每个字符只扫描一次，标签可以被拆分在任意多个分片中；只有可能是标签开头的几个字符会被暂存，
+ * 其余可见文本立即输出。闭合标签后的空白与原正则 {@code <think>.*?</think>\s*} 一样被丢弃。
+ * 实例有状态且不是线程安全的，每个流（订阅）使用一个新实例。
+ */
+public final class ThinkTagFilter implements StreamTextRewriter.Filter {
+
+    private static final String OPEN = "<think>";
+    private static final String CLOSE = "</think>";
+
+    private enum State {
+        // 普通文本，匹配开始标签
+        TEXT,
+        // think 内容，匹配结束标签
+        THINK,
+        // 结束标签之后，跳过空白
+        AFTER_THINK
+    }
+
+    private State state = State.TEXT;
+    // 当前已匹配的标签字符数；TEXT 状态下这些字符就是被暂存的内容
+    private int matched;
+
+    /**
+     * 过滤一个分片，返回可以立即输出的文本（可能为空字符串）
+     */
+    @Override
+    public String filter(String chunk) {
+        StringBuilder visible = new StringBuilder(chunk.length());
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i), visible);
+        }
+        return visible.toString();
+    }
+
+    /**
+     * 流结束时调用：返回仍被暂存的不完整开始标签（它其实是普通文本）；未闭合的 think 内容被丢弃
+     */
+    @Override
+    public String flush() {
+        String rest = state == State.TEXT ? OPEN.substring(0, matched) : "";
+        state = State.TEXT;
+        matched = 0;
+        return rest;
+    }
+
+    /**
+     * 一次性过滤完整文本
+     */
+    public static String strip(String text) {
+        ThinkTagFilter filter = new ThinkTagFilter();
+        return filter.filter(text) + filter.flush();
+    }
+
+    private void accept(char c, StringBuilder visible) {
+        switch (state) {
+            case AFTER_THINK -> {
+                if (Character.isWhitespace(c)) {
+                    return;
+                }
+                state = State.TEXT;
+                accept(c, visible);
+            }
+            case TEXT -> {
+                if (c == OPEN.charAt(matched)) {
+                    if (++matched == OPEN.length()) {
+                        state = State.THINK;
+                        matched = 0;
+                    }
+                    return;
+                }
+                // 匹配失败：暂存的字符是普通文本；"<think>" 中只有首字符 '<' 能重新开始匹配
+                visible.append(OPEN, 0, matched);
+                matched = c == '<' ? 1 : 0;
+                if (matched == 0) {
+                    visible.append(c);
+                }
+            }
+            case THINK -> {
+                if (c == CLOSE.charAt(matched)) {
+                    if (++matched == CLOSE.length()) {
+                        state = State.AFTER_THINK;
+                        matched = 0;
+                    }
+                    return;
+                }
+                matched = c == '<' ? 1 : 0;
+            }
+        }
+    }
+}
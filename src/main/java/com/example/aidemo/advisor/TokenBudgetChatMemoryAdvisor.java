@@ -0,0 +1,94 @@
+package com.example.aidemo.advisor;
+
+import com.example.aidemo.memory.ChatMemoryProperties;
+import com.example.aidemo.memory.TokenWindowChatMemory;
+import org.springframework.ai.chat.client.ChatClientMessageAggregator;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.client.advisor.api.BaseChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按token预算带入历史记录的聊天记忆顾问
+ * 与 MessageChatMemoryAdvisor 相同：请求前把历史消息放到提示词前面并保存用户消息，响应后保存模型回复；
+ * 区别是历史记录由 {@link TokenWindowChatMemory} 按 {@link #TOKEN_BUDGET} 参数给出的预算选取。
+ */
+@Component
+public class TokenBudgetChatMemoryAdvisor implements BaseChatMemoryAdvisor {
+
+    /**
+     * 顾问参数：本次请求带入的历史记录token预算，不传时使用 chat-memory.token-budget
+     */
+    public static final String TOKEN_BUDGET = "chat_memory_token_budget";
+
+    private final TokenWindowChatMemory chatMemory;
+    private final ChatMemoryProperties properties;
+
+    public TokenBudgetChatMemoryAdvisor(TokenWindowChatMemory chatMemory, ChatMemoryProperties properties) {
+        this.chatMemory = chatMemory;
+        this.properties = properties;
+    }
+
+    @Override
+    public int getOrder() {
+        return Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER;
+    }
+
+    @Override
+    public ChatClientRequest before(ChatClientRequest chatClientRequest, AdvisorChain advisorChain) {
+        String conversationId = getConversationId(chatClientRequest.context(), ChatMemory.DEFAULT_CONVERSATION_ID);
+
+        // 预算内的历史消息 + 本次请求的消息
+        List<Message> messages = new ArrayList<>(chatMemory.get(conversationId, tokenBudget(chatClientRequest)));
+        messages.addAll(chatClientRequest.prompt().getInstructions());
+
+        ChatClientRequest processedRequest = chatClientRequest.mutate()
+                .prompt(chatClientRequest.prompt().mutate().messages(messages).build())
+                .build();
+
+        // 保存用户消息
+        chatMemory.add(conversationId, chatClientRequest.prompt().getUserMessage());
+        return processedRequest;
+    }
+
+    @Override
+    public ChatClientResponse after(ChatClientResponse chatClientResponse, AdvisorChain advisorChain) {
+        if (chatClientResponse.chatResponse() == null) {
+            return chatClientResponse;
+        }
+        List<Message> assistantMessages = chatClientResponse.chatResponse().getResults().stream()
+                .map(Generation::getOutput)
+                .map(Message.class::cast)
+                .toList();
+        chatMemory.add(getConversationId(chatClientResponse.context(), ChatMemory.DEFAULT_CONVERSATION_ID), assistantMessages);
+        return chatClientResponse;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+        // 流式响应结束后把完整回复写入记忆
+        return Mono.just(chatClientRequest)
+                .publishOn(BaseAdvisor.DEFAULT_SCHEDULER)
+                .map(request -> before(request, streamAdvisorChain))
+                .flatMapMany(streamAdvisorChain::nextStream)
+                .transform(flux -> new ChatClientMessageAggregator().aggregateChatClientResponse(flux,
+                        response -> after(response, streamAdvisorChain)));
+    }
+
+    private int tokenBudget(ChatClientRequest request) {
+        Object budget = request.context().get(TOKEN_BUDGET);
+        return budget instanceof Number number ? number.intValue() : properties.getTokenBudget();
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.aidemo.controller;
 
+import com.example.aidemo.advisor.ContentFilterAdvisor;
+import com.example.aidemo.advisor.LlmMetricsAdvisor;
 import com.example.aidemo.advisor.SimpleLoggerAdvisor;
 import com.example.aidemo.advisor.ThinkRemovalAdvisor;
+import com.example.aidemo.advisor.TokenBudgetChatMemoryAdvisor;
+import com.example.aidemo.memory.ChatMemoryProperties;
 import com.example.aidemo.toolCalling.DateTimeTools;
 import com.example.aidemo.vo.MockUserVo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.client.advisor.SafeGuardAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
@@ -35,19 +37,14 @@ import static org.springframework.ai.chat.memory.ChatMemory.CONVERSATION_ID;
 public class ChatClientController {
 
     /**
-     * 默认历史记录条数
+     * 最小历史记录token预算下限，0 表示不带历史记录
      */
-    private static final int DEFAULT_HISTORY_SIZE = 10;
+    private static final int MIN_HISTORY_TOKENS = 0;
 
     /**
-     * 最大历史记录条数上限 - 根据成本和上下文窗口调整
+     * 旧参数 historySize 换算时每条消息按多少token计（默认预算 2048 约等于旧默认 10 条）
      */
-    private static final int MAX_HISTORY_SIZE = 50;
-
-    /**
-     * 最小历史记录条数下限
-     */
-    private static final int MIN_HISTORY_SIZE = 1;
+    private static final int LEGACY_TOKENS_PER_MESSAGE = 200;
 
     /**
      * AI聊天客户端
@@ -59,23 +56,43 @@ public class ChatClientController {
      */
     private final ChatMemory chatMemory;
 
+    /**
+     * 聊天记忆配置（默认及最大token预算）
+     */
+    private final ChatMemoryProperties chatMemoryProperties;
+
+    /**
+     * 时间工具（同时作为MCP工具注册的Spring Bean）
+     */
+    private final DateTimeTools dateTimeTools;
+
     /**
      * 构造函数 - 初始化聊天客户端和相关顾问
      *
      * @param chatClientBuilder   聊天客户端构建器
      * @param simpleLoggerAdvisor 简单日志顾问
+     * @param contentFilterAdvisor 内容安全过滤顾问
+     * @param llmMetricsAdvisor   大模型调用指标顾问
+     * @param chatMemoryAdvisor   按token预算带入历史记录的聊天记忆顾问
      * @param chatMemory          聊天记忆存储
+     * @param chatMemoryProperties 聊天记忆配置
+     * @param dateTimeTools       时间工具
      */
-    public ChatClientController(ChatClient.Builder chatClientBuilder, SimpleLoggerAdvisor simpleLoggerAdvisor, ThinkRemovalAdvisor thinkRemovalAdvisor, ChatMemory chatMemory) {
+    public ChatClientController(ChatClient.Builder chatClientBuilder, SimpleLoggerAdvisor simpleLoggerAdvisor, ThinkRemovalAdvisor thinkRemovalAdvisor,
+                                ContentFilterAdvisor contentFilterAdvisor, LlmMetricsAdvisor llmMetricsAdvisor, TokenBudgetChatMemoryAdvisor chatMemoryAdvisor,
+                                ChatMemory chatMemory, ChatMemoryProperties chatMemoryProperties, DateTimeTools dateTimeTools) {
         this.chatClient = chatClientBuilder
                 .defaultAdvisors(
                         thinkRemovalAdvisor, // 去掉thinking
                         simpleLoggerAdvisor, // 日志记录顾问
-                        new SafeGuardAdvisor(List.of("远光"), "抱歉包含非法内容", 10), // 内容安全过滤顾问
-                        MessageChatMemoryAdvisor.builder(chatMemory).build() // 聊天记忆顾问
+                        contentFilterAdvisor, // 内容安全过滤顾问
+                        chatMemoryAdvisor, // 聊天记忆顾问
+                        llmMetricsAdvisor // 首token时间、生成速度等指标
                 )
                 .build();
         this.chatMemory = chatMemory;
+        this.chatMemoryProperties = chatMemoryProperties;
+        this.dateTimeTools = dateTimeTools;
     }
 
     /**
@@ -83,16 +100,18 @@ public class ChatClientController {
      * 等待完整响应后一次性返回结果
      *
      * @param userInput   用户输入消息
-     * @param historySize 历史记录条数
+     * @param historyTokens 历史记录token预算
+     * @param historySize 已废弃，旧版历史记录条数，按条数换算为token预算
      * @param userId      用户ID，用于区分不同会话
      * @return 完整的AI响应内容
      */
     @Operation(summary = "大模型同步聊天 - 返回完整文本响应")
     @GetMapping("/sync")
     public String sync(@RequestParam(value = "message", defaultValue = "你是谁？") String userInput,
-                       @RequestParam(required = false) Integer historySize,
+                       @RequestParam(required = false) Integer historyTokens,
+                       @Deprecated @RequestParam(required = false) Integer historySize,
                        @RequestParam(required = false, defaultValue = "test") String userId) {
-        return stream(userInput, historySize, userId)
+        return stream(userInput, historyTokens, historySize, userId)
                 .collect(Collectors.joining())
                 .block();
     }
@@ -102,14 +121,16 @@ public class ChatClientController {
      * 使用Server-Sent Events实时返回AI响应内容
      *
      * @param userInput   用户输入消息
-     * @param historySize 历史记录条数（可选）
+     * @param historyTokens 历史记录token预算（可选）
+     * @param historySize 已废弃，旧版历史记录条数，按条数换算为token预算
      * @param userId      用户ID，用于区分不同会话
      * @return 流式响应内容
      */
     @Operation(summary = "大模型流式聊天 - SSE实时响应")
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<String> stream(@RequestParam(value = "message", defaultValue = "你是谁？") String userInput,
-                               @RequestParam(required = false) Integer historySize,
+                               @RequestParam(required = false) Integer historyTokens,
+                               @Deprecated @RequestParam(required = false) Integer historySize,
                                @RequestParam(required = false, defaultValue = "test") String userId) {
 
         // 参数校验和默认值设置
@@ -117,14 +138,15 @@ public class ChatClientController {
             return Flux.just("用户输入不能为空");
         }
 
-        // 历史记录条数校验和边界处理
-        int size = validateHistorySize(historySize);
+        // 历史记录token预算校验和边界处理
+        int tokenBudget = validateHistoryTokens(historyTokens, historySize);
 
         return this.chatClient.prompt()
                 .user(userInput)
                 .advisors(spec -> spec
                         .param(CONVERSATION_ID, userId) // 设置会话ID
-                        .param("chat_memory_response_size", size) // 设置历史记录条数
+                        .param(TokenBudgetChatMemoryAdvisor.TOKEN_BUDGET, tokenBudget) // 设置历史记录token预算
+                        .param(LlmMetricsAdvisor.ENDPOINT, "stream") // 指标中的接口名称
                 )
                 .stream()
                 .content()
@@ -155,15 +177,16 @@ public class ChatClientController {
     @Operation(summary = "大模型流式聊天 - SSE实时响应-结构化数据 outputBean")
     @GetMapping(value = "/outputBean")
     public MockUserVo outputBean(@RequestParam(value = "message", defaultValue = "你是谁？") String userInput,
-                                 @RequestParam(required = false) Integer historySize,
+                                 @RequestParam(required = false) Integer historyTokens,
+                                 @Deprecated @RequestParam(required = false) Integer historySize,
                                  @RequestParam(required = false, defaultValue = "test") String userId) {
 //        // 参数校验和默认值设置
 //        if (userInput == null || userInput.trim().isEmpty()) {
 //            return Flux.just("用户输入不能为空");
 //        }
 
-        // 历史记录条数校验和边界处理
-        int size = validateHistorySize(historySize);
+        // 历史记录token预算校验和边界处理
+        int tokenBudget = validateHistoryTokens(historyTokens, historySize);
 
 
         return this.chatClient.prompt()
@@ -172,7 +195,8 @@ public class ChatClientController {
                 .advisors(
                         spec -> spec
                                 .param(CONVERSATION_ID, userId) // 设置会话ID
-                                .param("chat_memory_response_size", size) // 设置历史记录条数
+                                .param(TokenBudgetChatMemoryAdvisor.TOKEN_BUDGET, tokenBudget) // 设置历史记录token预算
+                                .param(LlmMetricsAdvisor.ENDPOINT, "outputBean") // 指标中的接口名称
                 )
                 .call()
                 .entity(MockUserVo.class); // 确保UTF-8编码non-thinking
@@ -181,15 +205,16 @@ public class ChatClientController {
     @Operation(summary = "大模型流式聊天 - SSE实时响应-结构化数据 outputBean")
     @GetMapping(value = "/outputBeans")
     public List<MockUserVo> outputBeans(@RequestParam(value = "message", defaultValue = "你是谁？") String userInput,
-                                        @RequestParam(required = false) Integer historySize,
+                                        @RequestParam(required = false) Integer historyTokens,
+                                        @Deprecated @RequestParam(required = false) Integer historySize,
                                         @RequestParam(required = false, defaultValue = "test") String userId) {
 //        // 参数校验和默认值设置
 //        if (userInput == null || userInput.trim().isEmpty()) {
 //            return Flux.just("用户输入不能为空");
 //        }
 
-        // 历史记录条数校验和边界处理
-        int size = validateHistorySize(historySize);
+        // 历史记录token预算校验和边界处理
+        int tokenBudget = validateHistoryTokens(historyTokens, historySize);
 
 
         return this.chatClient.prompt()
@@ -198,7 +223,8 @@ public class ChatClientController {
                 .advisors(
                         spec -> spec
                                 .param(CONVERSATION_ID, userId) // 设置会话ID
-                                .param("chat_memory_response_size", size) // 设置历史记录条数
+                                .param(TokenBudgetChatMemoryAdvisor.TOKEN_BUDGET, tokenBudget) // 设置历史记录token预算
+                                .param(LlmMetricsAdvisor.ENDPOINT, "outputBeans") // 指标中的接口名称
                 )
                 .call()
 //                .entity(MockUserVo.class); // 确保UTF-8编码non-thinking
@@ -209,25 +235,27 @@ public class ChatClientController {
     @Operation(summary = "大模型流式聊天 - toolCalling")
     @GetMapping(value = "/toolCalling")
     public String toolCalling(@RequestParam(value = "message", defaultValue = "你是谁？") String userInput,
-                              @RequestParam(required = false) Integer historySize,
+                              @RequestParam(required = false) Integer historyTokens,
+                              @Deprecated @RequestParam(required = false) Integer historySize,
                               @RequestParam(required = false, defaultValue = "test") String userId) {
 //        // 参数校验和默认值设置
 //        if (userInput == null || userInput.trim().isEmpty()) {
 //            return Flux.just("用户输入不能为空");
 //        }
 
-        // 历史记录条数校验和边界处理
-        int size = validateHistorySize(historySize);
+        // 历史记录token预算校验和边界处理
+        int tokenBudget = validateHistoryTokens(historyTokens, historySize);
 
 
         return this.chatClient.prompt()
                 .system("no_think")
                 .user(userInput)
-                .tools(new DateTimeTools())
+                .tools(dateTimeTools)
                 .advisors(
                         spec -> spec
                                 .param(CONVERSATION_ID, userId) // 设置会话ID
-                                .param("chat_memory_response_size", size) // 设置历史记录条数
+                                .param(TokenBudgetChatMemoryAdvisor.TOKEN_BUDGET, tokenBudget) // 设置历史记录token预算
+                                .param(LlmMetricsAdvisor.ENDPOINT, "toolCalling") // 指标中的接口名称
                 )
                 .call()
 //                .entity(MockUserVo.class); // 确保UTF-8编码non-thinking
@@ -235,21 +263,26 @@ public class ChatClientController {
     }
 
     /**
-     * 校验并规范化历史记录条数
+     * 校验并规范化历史记录token预算
      *
-     * @param historySize 原始历史记录条数
-     * @return 校验后的历史记录条数
+     * @param historyTokens 原始历史记录token预算
+     * @param historySize   已废弃的历史记录条数，仅在未传 historyTokens 时使用
+     * @return 校验后的历史记录token预算
      */
-    private int validateHistorySize(Integer historySize) {
-        int size = Objects.requireNonNullElse(historySize, DEFAULT_HISTORY_SIZE);
+    private int validateHistoryTokens(Integer historyTokens, Integer historySize) {
+        if (historyTokens == null && historySize != null) {
+            // 兼容旧参数：按条数换算，超出上限的部分下面统一截断
+            historyTokens = (int) Math.min((long) historySize * LEGACY_TOKENS_PER_MESSAGE, Integer.MAX_VALUE);
+        }
+        int tokenBudget = Objects.requireNonNullElse(historyTokens, chatMemoryProperties.getTokenBudget());
 
-        if (size < MIN_HISTORY_SIZE) {
-            size = DEFAULT_HISTORY_SIZE;
-        } else if (size > MAX_HISTORY_SIZE) {
-            size = MAX_HISTORY_SIZE;
+        if (tokenBudget < MIN_HISTORY_TOKENS) {
+            tokenBudget = chatMemoryProperties.getTokenBudget();
+        } else if (tokenBudget > chatMemoryProperties.getMaxTokenBudget()) {
+            tokenBudget = chatMemoryProperties.getMaxTokenBudget();
         }
 
-        return size;
+        return tokenBudget;
     }
 
     /**
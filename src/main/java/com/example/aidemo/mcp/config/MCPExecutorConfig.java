@@ -0,0 +1,98 @@
+package com.example.aidemo.mcp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Executors and timers used by the MCP transports
+ */
+@Configuration
+public class MCPExecutorConfig {
+
+    /**
+     * Bounded pool that runs the items of parallel batch requests
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mcpBatchExecutor(MCPProperties properties) {
+        MCPProperties.Batch batch = properties.getBatch();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batch.getPoolSize());
+        executor.setMaxPoolSize(batch.getPoolSize());
+        executor.setQueueCapacity(batch.getQueueCapacity());
+        executor.setThreadNamePrefix("mcp-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Bounded pool that runs pipelined WebSocket requests
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mcpWebSocketExecutor(MCPProperties properties) {
+        MCPProperties.WebSocket websocket = properties.getWebsocket();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(websocket.getPoolSize());
+        executor.setMaxPoolSize(websocket.getPoolSize());
+        executor.setQueueCapacity(websocket.getQueueCapacity());
+        executor.setThreadNamePrefix("mcp-ws-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Writes queued WebSocket messages; each session has at most one drain task queued or running, so the
+     * queue is bounded by the number of sessions
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mcpWebSocketSendExecutor(MCPProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWebsocket().getSendPoolSize());
+        executor.setMaxPoolSize(properties.getWebsocket().getSendPoolSize());
+        executor.setThreadNamePrefix("mcp-ws-send-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Bounded pool that runs requests posted to SSE sessions
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mcpSseExecutor(MCPProperties properties) {
+        MCPProperties.Sse sse = properties.getSse();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sse.getPoolSize());
+        executor.setMaxPoolSize(sse.getPoolSize());
+        executor.setQueueCapacity(sse.getQueueCapacity());
+        executor.setThreadNamePrefix("mcp-sse-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Writes queued SSE events; each session has at most one drain task queued or running, so the queue is
+     * bounded by the number of sessions
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mcpSseSendExecutor(MCPProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getSse().getSendPoolSize());
+        executor.setMaxPoolSize(properties.getSse().getSendPoolSize());
+        executor.setThreadNamePrefix("mcp-sse-send-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Scheduler for MCP timers such as coalesced change notifications and SSE keepalives
+     */
+    @Bean
+    public ThreadPoolTaskScheduler mcpScheduler(MCPProperties properties) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(properties.getSchedulerPoolSize());
+        scheduler.setThreadNamePrefix("mcp-scheduler-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.aidemo.mcp.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning for the shared Jackson ObjectMapper.
+ * Spring Boot registers every Module bean in the auto-configured mapper, which is the single codec
+ * used by the MCP controllers, the WebSocket handler and MCPService.
+ */
+@Configuration
+public class MCPJacksonConfig {
+
+    /**
+     * Replaces reflective property access with generated lambdas
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
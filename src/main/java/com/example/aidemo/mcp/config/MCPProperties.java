@@ -0,0 +1,269 @@
+package com.example.aidemo.mcp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP server configuration properties (prefix {@code mcp})
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp")
+public class MCPProperties {
+
+    private Batch batch = new Batch();
+    private WebSocket websocket = new WebSocket();
+    private Sse sse = new Sse();
+    private Prompts prompts = new Prompts();
+    private Resources resources = new Resources();
+    private ToolExecution toolExecution = new ToolExecution();
+    private Subscriptions subscriptions = new Subscriptions();
+    /**
+     * Items per page of tools/list, resources/list, resources/templates/list and prompts/list
+     */
+    private int catalogPageSize = 100;
+    /**
+     * Threads of the scheduler shared by MCP timers
+     */
+    private int schedulerPoolSize = 2;
+    /**
+     * Result caches keyed by tool name; only tools listed here are memoized
+     */
+    private Map<String, ToolCache> toolCache = new LinkedHashMap<>();
+
+    /**
+     * Settings for the /mcp/batch endpoint
+     */
+    @Data
+    public static class Batch {
+        /**
+         * Fan batch items out on the batch executor instead of running them one by one
+         */
+        private boolean parallel = true;
+        /**
+         * Number of worker threads shared by all batches
+         */
+        private int poolSize = 16;
+        /**
+         * Items waiting for a worker; submissions beyond this fail with a server busy error
+         */
+        private int queueCapacity = 1000;
+        /**
+         * Maximum time a single item may take, measured from when a worker starts it
+         */
+        private Duration itemTimeout = Duration.ofSeconds(30);
+        /**
+         * Maximum time for the whole batch
+         */
+        private Duration batchTimeout = Duration.ofSeconds(60);
+        /**
+         * Maximum items of a streaming batch being executed at the same time
+         */
+        private int maxInFlight = 64;
+    }
+
+    /**
+     * Settings for the /mcp/ws endpoint
+     */
+    @Data
+    public static class WebSocket {
+        /**
+         * Requests of one session executed concurrently; further frames wait for a free slot
+         */
+        private int maxInFlightPerSession = 16;
+        /**
+         * How long a frame may wait for a free slot before it is rejected as busy
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(10);
+        /**
+         * Worker threads shared by all sessions
+         */
+        private int poolSize = 32;
+        /**
+         * Requests waiting for a worker across all sessions
+         */
+        private int queueCapacity = 2000;
+        /**
+         * Longest a single send may block before the session is closed as a slow consumer
+         */
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+        /**
+         * Outbound bytes buffered per session before the session is closed as a slow consumer
+         */
+        private int sendBufferSizeLimit = 512 * 1024;
+        /**
+         * Log every inbound frame; off by default because payloads can be large
+         */
+        private boolean logPayloads = false;
+        /**
+         * Open sessions on this node; further handshakes are closed with 1013 (try again later)
+         */
+        private int maxSessions = 10000;
+        /**
+         * Interval of the ping sent to every session; a session that misses two pongs in a row is closed
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        /**
+         * Sessions that send no message for this long are closed; zero (the default) keeps idle sessions open.
+         * Pongs do not count, so enabling this also closes clients that only listen to subscriptions.
+         */
+        private Duration idleTimeout = Duration.ZERO;
+        /**
+         * Threads that drain the per-session outbound queues
+         */
+        private int sendPoolSize = 8;
+    }
+
+    /**
+     * Settings for the /mcp/sse transport
+     */
+    @Data
+    public static class Sse {
+        /**
+         * Open SSE sessions, connected or awaiting resumption; further connects are refused
+         */
+        private int maxSessions = 10000;
+        /**
+         * Interval of the comment line sent to keep idle connections and proxies alive
+         */
+        private Duration keepaliveInterval = Duration.ofSeconds(15);
+        /**
+         * How long a disconnected session is kept so the client can resume it with Last-Event-ID
+         */
+        private Duration resumeWindow = Duration.ofMinutes(2);
+        /**
+         * Most recent events kept per session for replay on resumption
+         */
+        private int replayBufferSize = 64;
+        /**
+         * Worker threads that run the requests posted to /mcp/message
+         */
+        private int poolSize = 32;
+        /**
+         * Posted requests waiting for a worker across all sessions
+         */
+        private int queueCapacity = 2000;
+        /**
+         * Threads that write queued events to the event streams
+         */
+        private int sendPoolSize = 8;
+    }
+
+    /**
+     * Result cache of a single deterministic tool
+     */
+    @Data
+    public static class ToolCache {
+        /**
+         * Maximum cached results; the least recently used one is evicted first
+         */
+        private int maxEntries = 1000;
+        /**
+         * Maximum size of the cached keys and encoded results, in bytes
+         */
+        private long maxBytes = 1024 * 1024;
+        /**
+         * How long a result stays valid after it was computed
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Prompt template sources
+     */
+    @Data
+    public static class Prompts {
+        /**
+         * Templates bundled with the application
+         */
+        private String builtinLocation = "classpath*:mcp/prompts/*.md";
+        /**
+         * Optional directory of template files (*.md, *.txt); a template here replaces a bundled one of the same name
+         */
+        private String directory;
+        /**
+         * Reload templates from the directory when its files change
+         */
+        private boolean watch = true;
+    }
+
+    /**
+     * Settings for resources/subscribe
+     */
+    @Data
+    public static class Subscriptions {
+        /**
+         * Changes of a resource within this window are sent to its subscribers as a single notification
+         */
+        private Duration coalesceWindow = Duration.ofMillis(200);
+        /**
+         * Maximum resources a single session may subscribe to
+         */
+        private int maxPerSession = 1000;
+    }
+
+    /**
+     * File-backed resources served in chunks
+     */
+    @Data
+    public static class Resources {
+        /**
+         * Bytes returned by one resources/read of a file resource unless the client asks for less
+         */
+        private int chunkSize = 256 * 1024;
+        /**
+         * Files exposed as resources
+         */
+        private List<FileResource> files = new ArrayList<>();
+    }
+
+    @Data
+    public static class FileResource {
+        private String uri;
+        private String path;
+        private String name;
+        private String description;
+        /**
+         * text/*, JSON, XML and YAML types are returned as text, anything else as base64 blobs
+         */
+        private String mimeType = "text/plain";
+    }
+
+    /**
+     * Bulkheads isolating tool calls from each other and from the transport threads
+     */
+    @Data
+    public static class ToolExecution {
+        /**
+         * Limits applied to every tool without its own entry
+         */
+        private Bulkhead defaults = new Bulkhead();
+        /**
+         * Limits for individual tools, keyed by tool name
+         */
+        private Map<String, Bulkhead> tools = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Bulkhead {
+        /**
+         * Calls of the tool running at the same time
+         */
+        private int maxConcurrency = 8;
+        /**
+         * Calls waiting for a free slot; further calls are rejected as busy
+         */
+        private int queueDepth = 16;
+        /**
+         * Deadline of a single call, including the time spent queued
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+}
@@ -1,17 +1,33 @@
 package com.example.aidemo.mcp.controller;
 
+import com.example.aidemo.mcp.handler.MCPSseHandler;
 import com.example.aidemo.mcp.model.JsonRpcRequest;
 import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.example.aidemo.mcp.service.CatalogSnapshot;
+import com.example.aidemo.mcp.service.MCPBatchService;
+import com.example.aidemo.mcp.service.MCPMetrics;
+import com.example.aidemo.mcp.service.MCPRequestContext;
 import com.example.aidemo.mcp.service.MCPService;
+import com.example.aidemo.mcp.service.ToolResultCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * MCP (Model Context Protocol) REST Controller
@@ -25,27 +41,130 @@ import java.util.Map;
 public class MCPController {
 
     private final MCPService mcpService;
+    private final MCPBatchService mcpBatchService;
+    private final MCPSseHandler mcpSseHandler;
+    private final MCPMetrics metrics;
 
     /**
-     * Main MCP endpoint for JSON-RPC requests
+     * Main MCP endpoint for JSON-RPC requests.
+     * List methods without params are answered from the catalog snapshot and carry its ETag, which clients
+     * can revalidate against {@code GET /mcp/{catalog}/list}; over POST the in-body {@code ifVersion} check
+     * is the way to avoid re-downloading an unchanged catalog.
      */
-    @Operation(summary = "MCP JSON-RPC Endpoint", description = "Handle MCP protocol JSON-RPC 2.0 requests")
+    @Operation(summary = "MCP JSON-RPC Endpoint", description = "Handle MCP protocol JSON-RPC 2.0 requests; list methods without params return the ETag of the catalog snapshot")
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public JsonRpcResponse handleMCPRequest(@RequestBody JsonRpcRequest request) {
+    public CompletableFuture<ResponseEntity<JsonRpcResponse>> handleMCPRequest(@RequestBody JsonRpcRequest request) {
         log.info("Received MCP request: {}", request.getMethod());
-        return mcpService.handleRequest(request);
+        CatalogSnapshot snapshot = request.getParams() == null && request.getId() != null
+                ? mcpService.getCatalogSnapshot(request.getMethod()) : null;
+        if (snapshot == null) {
+            // Answered asynchronously, so a running tool call does not hold a servlet thread
+            return mcpService.handleRequestAsync(request, MCPRequestContext.HTTP_REQUEST)
+                    // Notifications have no response
+                    .thenApply(response -> response != null ? ResponseEntity.ok(response) : ResponseEntity.accepted().build());
+        }
+        // Served without MCPService, so measured here like every other request
+        MCPMetrics.Sample sample = metrics.start(request, MCPRequestContext.HTTP_REQUEST);
+        JsonRpcResponse response = JsonRpcResponse.success(request.getId(), snapshot.result());
+        ResponseEntity<JsonRpcResponse> entity = ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .body(response);
+        sample.stop(response);
+        return CompletableFuture.completedFuture(entity);
+    }
+
+    /**
+     * First page of a catalog listing as a plain result, revalidated with If-None-Match.
+     * The ETag is the one returned by the matching JSON-RPC list request; an unchanged catalog is answered
+     * with 304 Not Modified and no body.
+     */
+    @Operation(summary = "MCP Catalog Listing", description = "GET the first page of tools/list, resources/list, resources/templates/list or prompts/list; a matching If-None-Match is answered with 304")
+    @GetMapping(value = {"/tools/list", "/resources/list", "/resources/templates/list", "/prompts/list"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> getCatalogListing(HttpServletRequest servletRequest,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod(servletRequest.getRequestURI().substring((servletRequest.getContextPath() + "/mcp/").length()));
+        CatalogSnapshot snapshot = mcpService.getCatalogSnapshot(request.getMethod());
+        MCPMetrics.Sample sample = metrics.start(request, MCPRequestContext.HTTP_REQUEST);
+        ResponseEntity<Object> entity = matches(ifNoneMatch, snapshot.etag())
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build()
+                : ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.result());
+        // Recorded once the status is decided; a 304 is a successful revalidation
+        sample.stop(JsonRpcResponse.success(null, entity.getBody()));
+        return entity;
+    }
+
+    /**
+     * Weak comparison of an If-None-Match list against the current tag; {@code *} matches any
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
     }
 
     /**
      * Batch MCP requests
      */
-    @Operation(summary = "Batch MCP Requests", description = "Handle multiple MCP requests in a single call")
+    @Operation(summary = "Batch MCP Requests", description = "Handle multiple MCP requests in a single call; items run in parallel and responses keep the request order")
     @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
     public List<JsonRpcResponse> handleBatchMCPRequest(@RequestBody List<JsonRpcRequest> requests) {
         log.info("Received batch MCP request with {} items", requests.size());
-        return requests.stream()
-                .map(mcpService::handleRequest)
-                .toList();
+        return mcpBatchService.handleBatch(requests);
+    }
+
+    /**
+     * Streaming batch MCP requests
+     */
+    @Operation(summary = "Streaming MCP Requests", description = "Read a JSON array (or a single object) of MCP requests incrementally and stream each response back as an NDJSON line as soon as it completes; tool calls with a progress token also stream their progress and partial content")
+    @PostMapping(value = {"/batch/stream", "/stream"}, produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> handleStreamingBatchMCPRequest(HttpServletRequest request) throws IOException {
+        log.info("Received streaming batch MCP request");
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> mcpBatchService.handleStreamingBatch(body, out));
+    }
+
+    /**
+     * SSE transport: open or resume a session's event stream
+     */
+    @Operation(summary = "MCP SSE Stream", description = "Open an MCP session over Server-Sent Events; the first event names the endpoint to post requests to. Pass sessionId and Last-Event-ID to resume a dropped connection")
+    @GetMapping(value = "/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> openSseStream(@RequestParam(required = false) String sessionId,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = mcpSseHandler.connect(sessionId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Keep reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * SSE transport: post a request to a session; the response arrives on the session's event stream
+     */
+    @Operation(summary = "MCP SSE Message", description = "Post a JSON-RPC request to an SSE session; answered with 202 Accepted, the response is sent as a message event")
+    @PostMapping(value = "/message", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> handleSseMessage(@RequestParam String sessionId, @RequestBody JsonRpcRequest request) {
+        if (!mcpSseHandler.handleMessage(sessionId, request)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Tool result cache statistics
+     */
+    @Operation(summary = "Tool Cache Stats", description = "Hit/miss statistics of the tools whose results are memoized")
+    @GetMapping("/tools/cache")
+    public Map<String, ToolResultCache.Stats> toolCacheStats() {
+        return mcpService.getToolCacheStats();
     }
 
     /**
@@ -0,0 +1,451 @@
+package com.example.aidemo.mcp.handler;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.example.aidemo.mcp.service.CatalogChangedEvent;
+import com.example.aidemo.mcp.service.MCPRequestContext;
+import com.example.aidemo.mcp.service.MCPService;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.example.aidemo.mcp.service.SessionNotificationEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HTTP+SSE transport for MCP protocol.
+ * A client opens {@code GET /mcp/sse}, receives an {@code endpoint} event naming the URL to post its
+ * requests to, and gets every response and server notification back as a {@code message} event on the
+ * stream. Requests run through the same {@link MCPService} as the other transports, with a session context,
+ * so subscriptions, cancellation and progress work as over WebSocket.
+ * Connections are asynchronous and hold no thread while idle; a single scheduled task queues keepalives for
+ * all of them, and every write happens on the send executor. Every event is numbered and the most recent ones are kept in a small per-session ring, so a
+ * client that reconnects with {@code Last-Event-ID} within the resume window gets what it missed.
+ */
+@Slf4j
+@Component
+public class MCPSseHandler implements InitializingBean {
+
+    public static final String ENDPOINT_EVENT = "endpoint";
+    public static final String MESSAGE_EVENT = "message";
+
+    // Queued items a drain task writes before yielding its thread to other sessions
+    private static final int DRAIN_BATCH = 64;
+
+    private final MCPService mcpService;
+    private final ResourceSubscriptions subscriptions;
+    private final ThreadPoolTaskExecutor executor;
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private final TaskScheduler scheduler;
+    private final MCPProperties.Sse settings;
+    private final ObjectWriter writer;
+
+    private final Map<String, SseSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private ScheduledFuture<?> keepalive;
+
+    /**
+     * Work for a session's drain task, in the order it was queued
+     */
+    private interface Outbound {
+    }
+
+    private record Event(long id, String data) implements Outbound {
+    }
+
+    private record Keepalive() implements Outbound {
+    }
+
+    /**
+     * Switch to a new connection and replay the events up to {@code replayUpTo} that it has not seen
+     */
+    private record Attach(SseEmitter emitter, Long lastEventId, long replayUpTo) implements Outbound {
+    }
+
+    private static final Keepalive KEEPALIVE = new Keepalive();
+
+    /**
+     * A session outlives its connections: events sent while the client is away go into the replay ring.
+     * Events are numbered and queued without blocking; a drain task on the send executor writes them, one
+     * drain per session at a time, so a slow connection never holds up the thread that produced the event.
+     */
+    private final class SseSession {
+        private final String id;
+        private final MCPRequestContext context;
+        private final Event[] replay;
+        // Guarded by the session lock, which is only held to number and queue events
+        private long nextEventId = 1;
+        // Swapped without the session lock, so container callbacks never wait on a thread that is sending
+        private final AtomicReference<SseEmitter> emitter = new AtomicReference<>();
+        private volatile long detachedAt = System.nanoTime();
+
+        private final Queue<Outbound> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Set when events were left out of a full queue; the drain then drops the connection so the client resumes
+        private volatile boolean overflowed;
+        // Connection the drain writes to; only touched by the drain task
+        private SseEmitter target;
+
+        private SseSession(String id) {
+            this.id = id;
+            this.context = new MCPRequestContext(MCPRequestContext.SSE, id, notification -> MCPSseHandler.this.send(this, notification));
+            this.replay = new Event[Math.max(1, settings.getReplayBufferSize())];
+        }
+
+        /**
+         * Number the event, remember it for replay and queue it for the current connection
+         */
+        private void send(String data) {
+            synchronized (this) {
+                Event event = new Event(nextEventId++, data);
+                replay[(int) (event.id() % replay.length)] = event;
+                // Queued under the lock so the queue stays in event order
+                offer(event);
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Attach a new connection, replacing the previous one; the drain sends the endpoint event and replays
+         * the events it has not seen
+         */
+        private void attach(SseEmitter next, Long lastEventId) {
+            SseEmitter previous = emitter.getAndSet(next);
+            synchronized (this) {
+                // Events numbered before this point are replayed from the ring; later ones follow in the queue
+                outbound.add(new Attach(next, lastEventId, nextEventId - 1));
+                queued.incrementAndGet();
+            }
+            if (previous != null) {
+                previous.complete();
+            }
+            scheduleDrain();
+        }
+
+        private void detach(SseEmitter closed) {
+            // Stamp first: a session seen without an emitter must never look detached since long ago
+            detachedAt = System.nanoTime();
+            emitter.compareAndSet(closed, null);
+        }
+
+        private void keepalive() {
+            if (emitter.get() != null) {
+                offer(KEEPALIVE);
+                scheduleDrain();
+            }
+        }
+
+        private boolean expired(long now, long resumeWindow) {
+            return emitter.get() == null && now - detachedAt > resumeWindow;
+        }
+
+        private void offer(Outbound item) {
+            // Anything beyond the replay ring could not be resumed anyway
+            if (queued.incrementAndGet() > replay.length) {
+                queued.decrementAndGet();
+                overflowed = true;
+                return;
+            }
+            outbound.add(item);
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                draining.set(false);
+                log.warn("SSE send executor rejected session {}", id);
+            }
+        }
+
+        /**
+         * Write queued work in order; only one drain per session runs at a time, so each connection always
+         * has a single writer
+         */
+        private void drain() {
+            try {
+                Outbound item;
+                for (int sent = 0; sent < DRAIN_BATCH && (item = outbound.poll()) != null; sent++) {
+                    queued.decrementAndGet();
+                    if (item instanceof Attach attach) {
+                        attached(attach);
+                        continue;
+                    }
+                    // The only place the flag is cleared, once the connection it applies to has been dropped
+                    if (overflowed) {
+                        overflowed = false;
+                        if (target != null) {
+                            disconnected(target, new IOException("Slow consumer: send queue is full"));
+                        }
+                    }
+                    if (target == null || emitter.get() != target) {
+                        // Not connected; events stay in the replay ring
+                        continue;
+                    }
+                    if (item instanceof Event event) {
+                        write(target, event);
+                    } else {
+                        try {
+                            target.send(SseEmitter.event().comment(""));
+                        } catch (IOException | IllegalStateException e) {
+                            disconnected(target, e);
+                        }
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Work queued after the last poll, or left over from a full batch, gets a fresh drain task
+            if (!outbound.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void attached(Attach attach) {
+            // The overflow flag is left to drain: events dropped after this attach was queued were never
+            // written to the new connection, so it must still be closed and resumed
+            target = attach.emitter();
+            try {
+                target.send(SseEmitter.event().name(ENDPOINT_EVENT).data(endpoint(id)));
+            } catch (IOException | IllegalStateException e) {
+                disconnected(target, e);
+                return;
+            }
+            if (attach.lastEventId() == null) {
+                return;
+            }
+            List<Event> missed = new ArrayList<>();
+            synchronized (this) {
+                long first = Math.max(attach.lastEventId() + 1, nextEventId - replay.length);
+                if (first > attach.lastEventId() + 1) {
+                    log.warn("SSE session {} lost events {}..{} beyond the replay buffer", id, attach.lastEventId() + 1, first - 1);
+                }
+                for (long eventId = first; eventId <= attach.replayUpTo(); eventId++) {
+                    missed.add(replay[(int) (eventId % replay.length)]);
+                }
+            }
+            for (Event event : missed) {
+                if (target == null || emitter.get() != target) {
+                    return;
+                }
+                write(target, event);
+            }
+        }
+
+        private void write(SseEmitter connection, Event event) {
+            try {
+                connection.send(SseEmitter.event().id(Long.toString(event.id())).name(MESSAGE_EVENT).data(event.data()));
+            } catch (IOException | IllegalStateException e) {
+                disconnected(connection, e);
+            }
+        }
+
+        private void disconnected(SseEmitter connection, Exception e) {
+            log.debug("SSE session {} disconnected: {}", id, e.getMessage());
+            detach(connection);
+            if (target == connection) {
+                target = null;
+            }
+            connection.completeWithError(e);
+        }
+    }
+
+    public MCPSseHandler(MCPService mcpService,
+                         ResourceSubscriptions subscriptions,
+                         @Qualifier("mcpSseExecutor") ThreadPoolTaskExecutor executor,
+                         @Qualifier("mcpSseSendExecutor") ThreadPoolTaskExecutor sendExecutor,
+                         @Qualifier("mcpScheduler") TaskScheduler scheduler,
+                         MCPProperties properties,
+                         ObjectMapper objectMapper) {
+        this.mcpService = mcpService;
+        this.subscriptions = subscriptions;
+        this.executor = executor;
+        this.sendExecutor = sendExecutor;
+        this.scheduler = scheduler;
+        this.settings = properties.getSse();
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        keepalive = scheduler.scheduleAtFixedRate(this::sweep, settings.getKeepaliveInterval());
+    }
+
+    /**
+     * Open an event stream for a new session, or resume an existing one
+     *
+     * @param sessionId   session to resume, or null to start a new one
+     * @param lastEventId id of the last event the client received, from the {@code Last-Event-ID} header
+     * @return the emitter, or null when the server is at its session limit
+     */
+    public SseEmitter connect(String sessionId, Long lastEventId) {
+        SseSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            if (sessionCount.incrementAndGet() > settings.getMaxSessions()) {
+                sessionCount.decrementAndGet();
+                return null;
+            }
+            session = new SseSession(UUID.randomUUID().toString());
+            subscriptions.openSession(session.id);
+            sessions.put(session.id, session);
+            // A new session has nothing to replay
+            lastEventId = null;
+            log.info("SSE session opened: {}", session.id);
+        } else {
+            log.info("SSE session resumed: {} after event {}", session.id, lastEventId);
+        }
+
+        // No timeout: dead connections are found by the keepalive, idle ones cost no thread
+        SseEmitter emitter = new SseEmitter(0L);
+        SseSession owner = session;
+        emitter.onCompletion(() -> owner.detach(emitter));
+        emitter.onTimeout(() -> owner.detach(emitter));
+        emitter.onError(e -> owner.detach(emitter));
+        session.attach(emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Accept a request posted to a session; it runs on the SSE executor and its response is sent on the
+     * session's event stream
+     *
+     * @return false if the session does not exist
+     */
+    public boolean handleMessage(String sessionId, JsonRpcRequest request) {
+        SseSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        if (MCPService.isClientNotification(request)) {
+            // Notifications such as notifications/cancelled must not queue behind the calls they target
+            mcpService.handleRequest(request, session.context);
+            return true;
+        }
+        try {
+            executor.execute(() -> mcpService.handleRequestAsync(request, session.context)
+                    .thenAccept(response -> send(session, response)));
+        } catch (TaskRejectedException e) {
+            send(session, JsonRpcResponse.error(request.getId(), JsonRpcError.SERVER_BUSY, "Server busy: SSE queue is full"));
+        }
+        return true;
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Push a list_changed notification to every session, encoding it only once
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) throws JsonProcessingException {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        String encoded = writer.writeValueAsString(JsonRpcNotification.of(event.notificationMethod(), null));
+        sessions.values().forEach(session -> session.send(encoded));
+    }
+
+    /**
+     * Deliver a notification to the targeted sessions held by this transport, encoding it only once
+     */
+    @EventListener
+    public void onSessionNotification(SessionNotificationEvent event) throws JsonProcessingException {
+        String encoded = null;
+        for (String sessionId : event.sessionIds()) {
+            SseSession session = sessions.get(sessionId);
+            if (session == null) {
+                continue;
+            }
+            if (encoded == null) {
+                encoded = writer.writeValueAsString(event.notification());
+            }
+            session.send(encoded);
+        }
+    }
+
+    private void send(SseSession session, Object message) {
+        if (message == null) {
+            return;
+        }
+        try {
+            session.send(writer.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize MCP message", e);
+        }
+    }
+
+    /**
+     * Keep live connections open and drop sessions whose resume window has passed; keepalives are only
+     * queued, so the sweep never waits on a connection
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long resumeWindow = settings.getResumeWindow().toNanos();
+        for (SseSession session : sessions.values()) {
+            if (session.expired(now, resumeWindow)) {
+                close(session);
+            } else {
+                session.keepalive();
+            }
+        }
+    }
+
+    private void close(SseSession session) {
+        if (sessions.remove(session.id, session)) {
+            sessionCount.decrementAndGet();
+            subscriptions.removeSession(session.id);
+            log.info("SSE session closed: {}", session.id);
+        }
+    }
+
+    private static String endpoint(String sessionId) {
+        return "/mcp/message?sessionId=" + sessionId;
+    }
+
+    /**
+     * End every stream when the application starts closing; graceful shutdown would otherwise wait for
+     * the open connections until its timeout
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        if (keepalive != null) {
+            keepalive.cancel(false);
+        }
+        sessions.values().forEach(session -> {
+            SseEmitter current = session.emitter.getAndSet(null);
+            if (current != null) {
+                current.complete();
+            }
+        });
+    }
+}
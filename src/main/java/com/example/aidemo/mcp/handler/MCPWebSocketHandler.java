@@ -1,63 +1,202 @@
 package com.example.aidemo.mcp.handler;
 
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.handler.MCPWebSocketSessionManager.ManagedSession;
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.JsonRpcNotification;
 import com.example.aidemo.mcp.model.JsonRpcRequest;
 import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.example.aidemo.mcp.service.CatalogChangedEvent;
 import com.example.aidemo.mcp.service.MCPService;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.example.aidemo.mcp.service.SessionNotificationEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebSocket handler for MCP protocol
- * Supports real-time bidirectional communication using WebSocket transport
+ * Supports real-time bidirectional communication using WebSocket transport.
+ * Requests of a session are pipelined: each frame is parsed on the container thread and executed on the
+ * shared WebSocket executor, up to {@code maxInFlightPerSession} at a time; responses are queued on the
+ * session's outbound queue as they complete and correlated by their JSON-RPC id.
+ * Both text and binary frames are accepted; binary frames are parsed straight from their buffer. Each
+ * response uses the framing of the request it answers, and notifications switch to binary frames once the
+ * client has sent one. Session bookkeeping, heartbeats and fan-out live in
+ * {@link MCPWebSocketSessionManager}.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class MCPWebSocketHandler extends TextWebSocketHandler {
+public class MCPWebSocketHandler extends AbstractWebSocketHandler {
 
     private final MCPService mcpService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResourceSubscriptions subscriptions;
+    private final MCPWebSocketSessionManager sessionManager;
+    private final ThreadPoolTaskExecutor executor;
+    private final MCPProperties.WebSocket settings;
+    private final ObjectReader requestReader;
+    private final ObjectWriter writer;
+
+    public MCPWebSocketHandler(MCPService mcpService,
+                               ResourceSubscriptions subscriptions,
+                               MCPWebSocketSessionManager sessionManager,
+                               @Qualifier("mcpWebSocketExecutor") ThreadPoolTaskExecutor executor,
+                               MCPProperties properties,
+                               ObjectMapper objectMapper) {
+        this.mcpService = mcpService;
+        this.subscriptions = subscriptions;
+        this.sessionManager = sessionManager;
+        this.executor = executor;
+        this.settings = properties.getWebsocket();
+        this.requestReader = objectMapper.readerFor(JsonRpcRequest.class);
+        this.writer = objectMapper.writer();
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("WebSocket connection established: {}", session.getId());
+        if (sessionManager.register(session) != null) {
+            subscriptions.openSession(session.getId());
+        }
         super.afterConnectionEstablished(session);
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        ManagedSession state = sessionManager.get(session.getId());
+        if (state == null) {
+            return;
+        }
+        state.received();
         String payload = message.getPayload();
-        log.info("Received WebSocket message: {}", payload);
+        if (settings.isLogPayloads()) {
+            log.info("Received WebSocket message: {}", payload);
+        }
 
+        JsonRpcRequest request;
         try {
             // Parse JSON-RPC request
-            JsonRpcRequest request = objectMapper.readValue(payload, JsonRpcRequest.class);
-            
-            // Handle the request
-            JsonRpcResponse response = mcpService.handleRequest(request);
-            
-            // Send response back
-            String responseJson = objectMapper.writeValueAsString(response);
-            session.sendMessage(new TextMessage(responseJson));
-            
+            request = requestReader.readValue(payload);
+        } catch (Exception e) {
+            parseError(state, e, false);
+            return;
+        }
+        dispatch(state, request, false);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        ManagedSession state = sessionManager.get(session.getId());
+        if (state == null) {
+            return;
+        }
+        state.received();
+        state.binary = true;
+        ByteBuffer payload = message.getPayload();
+        if (settings.isLogPayloads()) {
+            log.info("Received WebSocket message: {}", StandardCharsets.UTF_8.decode(payload.duplicate()));
+        }
+
+        JsonRpcRequest request;
+        try {
+            // Parse JSON-RPC request directly from the frame buffer
+            request = payload.hasArray()
+                    ? requestReader.readValue(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining())
+                    : requestReader.readValue(new ByteBufferBackedInputStream(payload));
         } catch (Exception e) {
-            log.error("Error processing WebSocket message", e);
-            // Send error response
-            JsonRpcResponse errorResponse = JsonRpcResponse.error(null, -32700, "Parse error: " + e.getMessage());
-            String errorJson = objectMapper.writeValueAsString(errorResponse);
-            session.sendMessage(new TextMessage(errorJson));
+            parseError(state, e, true);
+            return;
+        }
+        dispatch(state, request, true);
+    }
+
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        ManagedSession state = sessionManager.get(session.getId());
+        if (state != null) {
+            state.pong();
+        }
+    }
+
+    private void parseError(ManagedSession state, Exception e, boolean binary) {
+        log.warn("Error parsing WebSocket message: {}", e.getMessage());
+        // Send error response
+        sessionManager.send(state, JsonRpcResponse.error(null, -32700, "Parse error: " + e.getMessage()), binary);
+    }
+
+    /**
+     * Run a request; its response uses the framing of the frame that carried it
+     */
+    private void dispatch(ManagedSession state, JsonRpcRequest request, boolean binary) throws InterruptedException {
+        if (MCPService.isClientNotification(request)) {
+            // Notifications such as notifications/cancelled are cheap and must not queue behind the calls they target
+            mcpService.handleRequest(request, state.context);
+            return;
         }
+        // Wait for a free slot; blocking here stops reading from a client that floods the session
+        if (!state.inFlight.tryAcquire(settings.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            sessionManager.send(state, JsonRpcResponse.error(request.getId(), JsonRpcError.SERVER_BUSY, "Server busy: too many requests in flight"), binary);
+            return;
+        }
+        try {
+            // The worker only starts the request; a tool call completes on its bulkhead, and the slot is held
+            // until the response has been queued
+            executor.execute(() -> mcpService.handleRequestAsync(request, state.context)
+                    .whenComplete((response, error) -> {
+                        try {
+                            sessionManager.send(state, response, binary);
+                        } finally {
+                            state.inFlight.release();
+                        }
+                    }));
+        } catch (TaskRejectedException e) {
+            state.inFlight.release();
+            sessionManager.send(state, JsonRpcResponse.error(request.getId(), JsonRpcError.SERVER_BUSY, "Server busy: WebSocket queue is full"), binary);
+        }
+    }
+
+    /**
+     * Push a list_changed notification to every connected client, encoding it only once
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) throws IOException {
+        if (sessionManager.getSessionCount() == 0) {
+            return;
+        }
+        sessionManager.broadcast(writer.writeValueAsBytes(JsonRpcNotification.of(event.notificationMethod(), null)));
+    }
+
+    /**
+     * Deliver a notification to the targeted sessions held by this handler, encoding it only once
+     */
+    @EventListener
+    public void onSessionNotification(SessionNotificationEvent event) throws IOException {
+        sessionManager.sendTo(event.sessionIds(), event.notification());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         log.info("WebSocket connection closed: {} with status: {}", session.getId(), status);
+        sessionManager.unregister(session.getId());
+        subscriptions.removeSession(session.getId());
         super.afterConnectionClosed(session, status);
     }
 
@@ -0,0 +1,317 @@
+package com.example.aidemo.mcp.handler;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.service.MCPRequestContext;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the open MCP WebSocket sessions.
+ * Every session has a lock-free outbound queue drained by the send executor, one drain task per session at
+ * a time, so enqueueing never blocks: broadcasting encodes once and costs one enqueue per session, with no
+ * global lock and no thread ever waiting on a slow socket. A session whose queued bytes exceed the send
+ * buffer limit, or whose current write outlasts the send time limit, is closed as a slow consumer.
+ * A single scheduled sweep pings every session, and closes sessions that missed two pongs (zombies) or, when
+ * an idle timeout is configured, sent nothing for that long. The number of open sessions is capped.
+ */
+@Slf4j
+@Component
+public class MCPWebSocketSessionManager implements InitializingBean, DisposableBean {
+
+    static final CloseStatus SLOW_CONSUMER = CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer");
+    static final CloseStatus HEARTBEAT_TIMEOUT = CloseStatus.SESSION_NOT_RELIABLE.withReason("Heartbeat timeout");
+    static final CloseStatus IDLE_TIMEOUT = CloseStatus.GOING_AWAY.withReason("Idle timeout");
+
+    // Messages a drain task writes before yielding its thread to other sessions
+    private static final int DRAIN_BATCH = 64;
+
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private final TaskScheduler scheduler;
+    private final ResourceSubscriptions subscriptions;
+    private final MCPProperties.WebSocket settings;
+    private final ObjectWriter writer;
+
+    private final Map<String, ManagedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private ScheduledFuture<?> heartbeat;
+
+    /**
+     * An open session with its request context, in-flight limit and outbound queue
+     */
+    final class ManagedSession {
+        final WebSocketSession session;
+        final MCPRequestContext context;
+        final Semaphore inFlight;
+        // Set once the client sends a binary frame; notifications not tied to a request then use binary frames
+        volatile boolean binary;
+
+        private final Queue<WebSocketMessage<?>> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private volatile long lastReceived = System.nanoTime();
+        private volatile long lastPong = System.nanoTime();
+        private volatile boolean writing;
+        private volatile long writeStartedAt;
+
+        private ManagedSession(WebSocketSession session) {
+            this.session = session;
+            // Progress and partial results of the session's calls are pushed as they are produced
+            this.context = new MCPRequestContext(MCPRequestContext.WEBSOCKET, session.getId(), notification -> send(this, notification));
+            this.inFlight = new Semaphore(settings.getMaxInFlightPerSession());
+        }
+
+        String getId() {
+            return session.getId();
+        }
+
+        /**
+         * Record inbound traffic; keeps the session from being evicted as idle
+         */
+        void received() {
+            lastReceived = System.nanoTime();
+        }
+
+        void pong() {
+            lastPong = System.nanoTime();
+        }
+    }
+
+    public MCPWebSocketSessionManager(@Qualifier("mcpWebSocketSendExecutor") ThreadPoolTaskExecutor sendExecutor,
+                                      @Qualifier("mcpScheduler") TaskScheduler scheduler,
+                                      ResourceSubscriptions subscriptions,
+                                      MCPProperties properties,
+                                      ObjectMapper objectMapper) {
+        this.sendExecutor = sendExecutor;
+        this.scheduler = scheduler;
+        this.subscriptions = subscriptions;
+        this.settings = properties.getWebsocket();
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        heartbeat = scheduler.scheduleAtFixedRate(this::sweep, settings.getHeartbeatInterval());
+    }
+
+    /**
+     * Track a newly opened session, or close it with 1013 when the node is at its session limit
+     *
+     * @return the managed session, or null if it was refused
+     */
+    ManagedSession register(WebSocketSession session) throws IOException {
+        if (sessionCount.incrementAndGet() > settings.getMaxSessions()) {
+            sessionCount.decrementAndGet();
+            log.warn("Refusing WebSocket session {}: {} sessions open", session.getId(), settings.getMaxSessions());
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+            return null;
+        }
+        ManagedSession managed = new ManagedSession(session);
+        sessions.put(session.getId(), managed);
+        return managed;
+    }
+
+    ManagedSession get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    void unregister(String sessionId) {
+        ManagedSession managed = sessions.remove(sessionId);
+        if (managed != null) {
+            sessionCount.decrementAndGet();
+            managed.outbound.clear();
+        }
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Encode a notification in the session's framing and queue it
+     */
+    void send(ManagedSession managed, Object message) {
+        send(managed, message, managed.binary);
+    }
+
+    /**
+     * Encode a response in the framing of the request it answers and queue it
+     */
+    void send(ManagedSession managed, Object message, boolean binary) {
+        if (message == null) {
+            return;
+        }
+        try {
+            enqueue(managed, binary
+                    ? new BinaryMessage(writer.writeValueAsBytes(message))
+                    : new TextMessage(writer.writeValueAsString(message)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize MCP message", e);
+        }
+    }
+
+    /**
+     * Queue an already encoded message for every session
+     */
+    void broadcast(byte[] encoded) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        TextMessage text = new TextMessage(encoded);
+        for (ManagedSession managed : sessions.values()) {
+            // A BinaryMessage's buffer is consumed on send, so binary sessions each get their own wrapper
+            enqueue(managed, managed.binary ? new BinaryMessage(encoded) : text);
+        }
+    }
+
+    /**
+     * Queue a message for the given sessions held by this node, encoding it only once
+     */
+    void sendTo(Collection<String> sessionIds, Object message) throws JsonProcessingException {
+        byte[] encoded = null;
+        TextMessage text = null;
+        for (String sessionId : sessionIds) {
+            ManagedSession managed = sessions.get(sessionId);
+            if (managed == null) {
+                continue;
+            }
+            if (encoded == null) {
+                encoded = writer.writeValueAsBytes(message);
+                text = new TextMessage(encoded);
+            }
+            enqueue(managed, managed.binary ? new BinaryMessage(encoded) : text);
+        }
+    }
+
+    private void enqueue(ManagedSession managed, WebSocketMessage<?> message) {
+        if (managed.closing.get() || !managed.session.isOpen()) {
+            return;
+        }
+        if (managed.pendingBytes.addAndGet(message.getPayloadLength()) > settings.getSendBufferSizeLimit()) {
+            close(managed, SLOW_CONSUMER);
+            return;
+        }
+        managed.outbound.add(message);
+        scheduleDrain(managed);
+    }
+
+    private void scheduleDrain(ManagedSession managed) {
+        if (!managed.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> drain(managed));
+        } catch (TaskRejectedException e) {
+            managed.draining.set(false);
+            log.warn("WebSocket send executor rejected session {}", managed.getId());
+        }
+    }
+
+    /**
+     * Write queued messages in order; only one drain per session runs at a time, so the underlying session
+     * always has a single writer
+     */
+    private void drain(ManagedSession managed) {
+        try {
+            WebSocketMessage<?> message;
+            for (int sent = 0; sent < DRAIN_BATCH && (message = managed.outbound.poll()) != null; sent++) {
+                managed.pendingBytes.addAndGet(-message.getPayloadLength());
+                if (managed.closing.get() || !managed.session.isOpen()) {
+                    continue;
+                }
+                managed.writeStartedAt = System.nanoTime();
+                managed.writing = true;
+                try {
+                    managed.session.sendMessage(message);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to send to session {}: {}", managed.getId(), e.getMessage());
+                    close(managed, CloseStatus.SERVER_ERROR);
+                } finally {
+                    managed.writing = false;
+                }
+            }
+        } finally {
+            managed.draining.set(false);
+        }
+        // Messages queued after the last poll, or left over from a full batch, get a fresh drain task
+        if (!managed.outbound.isEmpty() && !managed.closing.get()) {
+            scheduleDrain(managed);
+        }
+    }
+
+    /**
+     * Heartbeat: abort stuck writes, evict zombie and idle sessions, and ping the rest
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long sendTimeLimit = settings.getSendTimeLimit().toNanos();
+        long pongDeadline = settings.getHeartbeatInterval().toNanos() * 2;
+        long idleTimeout = settings.getIdleTimeout().toNanos();
+        for (ManagedSession managed : sessions.values()) {
+            if (managed.writing && now - managed.writeStartedAt > sendTimeLimit) {
+                close(managed, SLOW_CONSUMER);
+            } else if (now - managed.lastPong > pongDeadline) {
+                close(managed, HEARTBEAT_TIMEOUT);
+            } else if (idleTimeout > 0 && now - managed.lastReceived > idleTimeout) {
+                close(managed, IDLE_TIMEOUT);
+            } else {
+                enqueue(managed, new PingMessage());
+            }
+        }
+    }
+
+    /**
+     * Close a session once and unregister it with its subscriptions, even if the close itself fails; the
+     * handler's close callback doing the same again is harmless
+     */
+    void close(ManagedSession managed, CloseStatus status) {
+        if (!managed.closing.compareAndSet(false, true)) {
+            return;
+        }
+        log.info("Closing WebSocket session {}: {}", managed.getId(), status.getReason());
+        managed.outbound.clear();
+        try {
+            managed.session.close(status);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error closing session {}: {}", managed.getId(), e.getMessage());
+        } finally {
+            unregister(managed.getId());
+            subscriptions.removeSession(managed.getId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+        }
+    }
+}
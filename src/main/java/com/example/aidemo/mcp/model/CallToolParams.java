@@ -0,0 +1,18 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Params of tools/call
+ */
+public record CallToolParams(String name, Map<String, Object> arguments, @JsonProperty("_meta") RequestMeta meta) {
+
+    /**
+     * Progress token requested by the client, or null
+     */
+    public Object progressToken() {
+        return meta != null ? meta.progressToken() : null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * Params of notifications/cancelled
+ *
+ * @param requestId id of the request to abort
+ * @param reason    optional human-readable reason
+ */
+public record CancelledParams(Object requestId, String reason) {
+}
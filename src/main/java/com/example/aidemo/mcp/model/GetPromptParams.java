@@ -0,0 +1,9 @@
+package com.example.aidemo.mcp.model;
+
+import java.util.Map;
+
+/**
+ * Params of prompts/get
+ */
+public record GetPromptParams(String name, Map<String, Object> arguments) {
+}
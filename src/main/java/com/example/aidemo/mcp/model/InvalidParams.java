@@ -0,0 +1,10 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * Params of a known method that could not be bound to its typed record, e.g. an array sent to tools/call.
+ * The request keeps its id and method so dispatch can answer with -32602 instead of a parse error.
+ *
+ * @param message why binding failed
+ */
+public record InvalidParams(String message) {
+}
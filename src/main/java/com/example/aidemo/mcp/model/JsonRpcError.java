@@ -13,6 +13,23 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class JsonRpcError {
+
+    /**
+     * Standard JSON-RPC error codes
+     */
+    public static final int INVALID_PARAMS = -32602;
+    public static final int INTERNAL_ERROR = -32603;
+
+    /**
+     * Server-defined error codes (JSON-RPC reserves -32000 to -32099 for implementations)
+     */
+    public static final int REQUEST_TIMEOUT = -32001;
+    public static final int SERVER_BUSY = -32002;
+    /**
+     * The request was cancelled through notifications/cancelled; no response is sent for it
+     */
+    public static final int REQUEST_CANCELLED = -32800;
+
     private int code;
     private String message;
     private Object data;
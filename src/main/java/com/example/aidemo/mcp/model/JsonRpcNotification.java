@@ -0,0 +1,26 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON-RPC 2.0 Notification (a request without an id that expects no response)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JsonRpcNotification {
+    private String jsonrpc = "2.0";
+    private String method;
+    private Object params;
+
+    public static JsonRpcNotification of(String method, Object params) {
+        JsonRpcNotification notification = new JsonRpcNotification();
+        notification.setMethod(method);
+        notification.setParams(params);
+        return notification;
+    }
+}
@@ -1,17 +1,20 @@
 package com.example.aidemo.mcp.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * JSON-RPC 2.0 Request
+ * Params of known MCP methods are decoded into their typed records, see {@link JsonRpcRequestDeserializer}
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(using = JsonRpcRequestDeserializer.class)
 public class JsonRpcRequest {
     private String jsonrpc = "2.0";
     private String method;
@@ -0,0 +1,104 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Decodes a {@link JsonRpcRequest} with its params bound straight to the typed record of the method.
+ * When {@code method} precedes {@code params} (the usual order) params are decoded in the same pass;
+ * otherwise they are buffered as tokens and decoded once the method is known. Methods without a
+ * typed record keep the generic representation. Params that are well-formed JSON but do not fit the
+ * record of a known method are skipped and replaced by {@link InvalidParams}, so the request is still
+ * answered with its id.
+ */
+public class JsonRpcRequestDeserializer extends StdDeserializer<JsonRpcRequest> {
+
+    private static final Map<String, Class<?>> PARAMS_TYPES = Map.ofEntries(
+            Map.entry("tools/list", ListParams.class),
+            Map.entry("tools/call", CallToolParams.class),
+            Map.entry("resources/list", ListParams.class),
+            Map.entry("resources/templates/list", ListParams.class),
+            Map.entry("resources/read", ReadResourceParams.class),
+            Map.entry("resources/subscribe", SubscribeParams.class),
+            Map.entry("resources/unsubscribe", SubscribeParams.class),
+            Map.entry("prompts/list", ListParams.class),
+            Map.entry("prompts/get", GetPromptParams.class),
+            Map.entry("notifications/cancelled", CancelledParams.class)
+    );
+
+    public JsonRpcRequestDeserializer() {
+        super(JsonRpcRequest.class);
+    }
+
+    @Override
+    public JsonRpcRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (JsonRpcRequest) ctxt.handleUnexpectedToken(JsonRpcRequest.class, p);
+        }
+
+        JsonRpcRequest request = new JsonRpcRequest();
+        TokenBuffer deferredParams = null;
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "jsonrpc" -> request.setJsonrpc(p.getValueAsString());
+                case "method" -> request.setMethod(p.getValueAsString());
+                case "id" -> request.setId(readUntyped(p, ctxt));
+                case "params" -> {
+                    if (request.getMethod() != null) {
+                        request.setParams(readParams(p, ctxt, request.getMethod()));
+                    } else {
+                        deferredParams = ctxt.bufferAsCopyOfValue(p);
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+
+        if (deferredParams != null) {
+            try (JsonParser buffered = deferredParams.asParserOnFirstToken()) {
+                request.setParams(readParams(buffered, ctxt, request.getMethod()));
+            }
+        }
+        return request;
+    }
+
+    private static Object readParams(JsonParser p, DeserializationContext ctxt, String method) throws IOException {
+        Class<?> type = method != null ? PARAMS_TYPES.get(method) : null;
+        if (type == null || p.currentToken() == JsonToken.VALUE_NULL) {
+            return readUntyped(p, ctxt);
+        }
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return new InvalidParams("params of " + method + " must be an object");
+        }
+        int depth = p.getParsingContext().getNestingDepth();
+        try {
+            return ctxt.readValue(p, type);
+        } catch (JsonMappingException e) {
+            // Skip the rest of the params object; the failure may have left the parser anywhere inside it
+            while (p.currentToken() != JsonToken.END_OBJECT || p.getParsingContext().getNestingDepth() >= depth) {
+                if (p.nextToken() == null) {
+                    throw e;
+                }
+            }
+            return new InvalidParams(e.getOriginalMessage());
+        }
+    }
+
+    private static Object readUntyped(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Object.class);
+    }
+}
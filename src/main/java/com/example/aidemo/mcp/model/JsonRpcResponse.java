@@ -26,9 +26,13 @@ public class JsonRpcResponse {
     }
 
     public static JsonRpcResponse error(Object id, int code, String message) {
+        return error(id, code, message, null);
+    }
+
+    public static JsonRpcResponse error(Object id, int code, String message, Object data) {
         JsonRpcResponse response = new JsonRpcResponse();
         response.setId(id);
-        response.setError(new JsonRpcError(code, message, null));
+        response.setError(new JsonRpcError(code, message, data));
         return response;
     }
 }
@@ -0,0 +1,10 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * Params of tools/list, resources/list, resources/templates/list and prompts/list
+ *
+ * @param ifVersion catalog version the client already holds
+ * @param cursor    {@code nextCursor} of the previous page
+ */
+public record ListParams(String ifVersion, String cursor) {
+}
@@ -0,0 +1,23 @@
+package com.example.aidemo.mcp.model;
+
+import lombok.Getter;
+
+/**
+ * A failure that maps to a specific JSON-RPC error code, optionally with structured error data
+ */
+@Getter
+public class MCPException extends RuntimeException {
+
+    private final int code;
+    private final transient Object data;
+
+    public MCPException(int code, String message) {
+        this(code, message, null);
+    }
+
+    public MCPException(int code, String message, Object data) {
+        super(message);
+        this.code = code;
+        this.data = data;
+    }
+}
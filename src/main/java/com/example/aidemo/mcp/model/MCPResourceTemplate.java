@@ -0,0 +1,22 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MCP Resource Template Definition, e.g. {@code resource://db/{table}/{id}}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MCPResourceTemplate {
+    private String uriTemplate;
+    private String name;
+    private String description;
+    private String mimeType;
+}
@@ -0,0 +1,69 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON-RPC result that was serialized ahead of time.
+ * Behaves as a read-only map for in-process callers, while Jackson writes the cached
+ * UTF-8 encoding verbatim instead of walking the map again.
+ */
+@JsonSerialize(using = PreEncodedResult.Serializer.class)
+public final class PreEncodedResult extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> value;
+    private final SerializedString json;
+
+    public PreEncodedResult(Map<String, Object> value, String json) {
+        // Unlike Map.copyOf this accepts null values, which tool results may carry
+        this.value = Collections.unmodifiableMap(new LinkedHashMap<>(value));
+        this.json = new SerializedString(json);
+    }
+
+    /**
+     * Length of the encoded JSON in characters
+     */
+    public int encodedLength() {
+        return json.charLength();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return value.entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return value.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return value.containsKey(key);
+    }
+
+    /**
+     * Writes the pre-encoded JSON as a raw value
+     */
+    public static final class Serializer extends StdSerializer<PreEncodedResult> {
+
+        public Serializer() {
+            super(PreEncodedResult.class);
+        }
+
+        @Override
+        public void serialize(PreEncodedResult result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeRawValue(result.json);
+        }
+    }
+}
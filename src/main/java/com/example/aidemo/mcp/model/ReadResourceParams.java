@@ -0,0 +1,9 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * Params of resources/read.
+ * Resources served in chunks accept either the {@code cursor} returned as {@code nextCursor} by the previous
+ * read, or an explicit byte {@code offset}; {@code length} caps the bytes returned.
+ */
+public record ReadResourceParams(String uri, String cursor, Long offset, Integer length) {
+}
@@ -0,0 +1,9 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * The {@code _meta} object of request params
+ *
+ * @param progressToken token the client wants progress notifications tagged with, or null for none
+ */
+public record RequestMeta(Object progressToken) {
+}
@@ -0,0 +1,115 @@
+package com.example.aidemo.mcp.model;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A byte range of a resource, serialized as a resources/read content item.
+ * The bytes must not change under the chunk until it is serialized, so readers hand over a buffer they own
+ * rather than a view of a live mapping; text is streamed into the JSON output through a decoder and binary
+ * content is base64-encoded on the fly, so the range is never copied into a heap string.
+ */
+@JsonSerialize(using = ResourceChunk.Serializer.class)
+public final class ResourceChunk {
+
+    private final String uri;
+    private final String mimeType;
+    private final ByteBuffer content;
+    private final boolean text;
+    private final long offset;
+    private final long size;
+
+    /**
+     * @param content bytes of the range; the chunk keeps its own read-only view
+     * @param text    serialize as UTF-8 {@code text} rather than base64 {@code blob}
+     * @param offset  position of the range within the resource
+     * @param size    total size of the resource in bytes
+     */
+    public ResourceChunk(String uri, String mimeType, ByteBuffer content, boolean text, long offset, long size) {
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.content = content.asReadOnlyBuffer();
+        this.text = text;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    public String mimeType() {
+        return mimeType;
+    }
+
+    public boolean isText() {
+        return text;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public int length() {
+        return content.remaining();
+    }
+
+    /**
+     * Position just past this range, where the next chunk starts
+     */
+    public long end() {
+        return offset + content.remaining();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean hasMore() {
+        return end() < size;
+    }
+
+    /**
+     * Decode the range into a string; meant for small content and in-process callers
+     */
+    public String text() {
+        return StandardCharsets.UTF_8.decode(content.duplicate()).toString();
+    }
+
+    /**
+     * Writes {@code {"uri", "mimeType", "text" | "blob"}} straight from the buffer
+     */
+    public static final class Serializer extends StdSerializer<ResourceChunk> {
+
+        public Serializer() {
+            super(ResourceChunk.class);
+        }
+
+        @Override
+        public void serialize(ResourceChunk chunk, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("uri", chunk.uri);
+            if (chunk.mimeType != null) {
+                gen.writeStringField("mimeType", chunk.mimeType);
+            }
+            ByteBuffer bytes = chunk.content.duplicate();
+            if (chunk.text) {
+                gen.writeFieldName("text");
+                gen.writeString(new InputStreamReader(new ByteBufferBackedInputStream(bytes), StandardCharsets.UTF_8), -1);
+            } else {
+                gen.writeFieldName("blob");
+                gen.writeBinary(Base64Variants.getDefaultVariant(), new ByteBufferBackedInputStream(bytes), bytes.remaining());
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.aidemo.mcp.model;
+
+/**
+ * Params of resources/subscribe and resources/unsubscribe
+ */
+public record SubscribeParams(String uri) {
+}
@@ -0,0 +1,83 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.PreEncodedResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Lazily built, pre-encoded snapshot of a catalog.
+ * The snapshot is rebuilt only after {@link #invalidate()} is called, so serving an unchanged
+ * catalog costs a volatile read. Large catalogs are split into pages of {@code pageSize} items linked by
+ * {@code nextCursor}.
+ */
+class CatalogCache {
+
+    private final String key;
+    private final Supplier<? extends Collection<?>> source;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private volatile CatalogSnapshot snapshot;
+
+    CatalogCache(String key, Supplier<? extends Collection<?>> source, ObjectMapper objectMapper, int pageSize) {
+        this.key = key;
+        this.source = source;
+        this.objectMapper = objectMapper;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    CatalogSnapshot get() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = build();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Drop the current snapshot; waits for a concurrent rebuild so it cannot publish stale data
+     */
+    synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    private CatalogSnapshot build() {
+        try {
+            List<Object> items = List.copyOf(source.get());
+            String version = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(items));
+
+            Map<String, Object> meta = Map.of("version", version);
+            int pageCount = Math.max(1, (items.size() + pageSize - 1) / pageSize);
+            List<PreEncodedResult> pages = new ArrayList<>(pageCount);
+            for (int page = 0; page < pageCount; page++) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put(key, items.subList(page * pageSize, Math.min(items.size(), (page + 1) * pageSize)));
+                if (page + 1 < pageCount) {
+                    result.put("nextCursor", CatalogSnapshot.cursor(version, page + 1));
+                }
+                result.put("_meta", meta);
+                pages.add(new PreEncodedResult(result, objectMapper.writeValueAsString(result)));
+            }
+
+            Map<String, Object> notModified = Map.of("_meta", Map.of("version", version, "notModified", true));
+
+            return new CatalogSnapshot(version, List.copyOf(pages),
+                    new PreEncodedResult(notModified, objectMapper.writeValueAsString(notModified)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + key + " catalog", e);
+        }
+    }
+}
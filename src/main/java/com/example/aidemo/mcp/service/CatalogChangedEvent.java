@@ -0,0 +1,16 @@
+package com.example.aidemo.mcp.service;
+
+/**
+ * Published by {@link MCPRegistry} after a tool, resource or prompt was registered or unregistered
+ *
+ * @param catalog "tools", "resources" or "prompts"
+ */
+public record CatalogChangedEvent(String catalog) {
+
+    /**
+     * MCP notification method announcing the change to clients
+     */
+    public String notificationMethod() {
+        return "notifications/" + catalog + "/list_changed";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.MCPException;
+import com.example.aidemo.mcp.model.PreEncodedResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Immutable, pre-encoded view of one MCP catalog (tools, resources, resource templates or prompts)
+ *
+ * @param version     content hash of the catalog, used for version checks and as the HTTP ETag
+ * @param pages       the list result split into pages, each serialized once when the snapshot was built
+ * @param notModified result returned to clients that already hold this version
+ */
+public record CatalogSnapshot(String version, List<PreEncodedResult> pages, PreEncodedResult notModified) {
+
+    /**
+     * First page of the list result
+     */
+    public PreEncodedResult result() {
+        return pages.get(0);
+    }
+
+    /**
+     * The page a {@code nextCursor} of this snapshot points to. Cursors are bound to the version they were
+     * issued for, so paging through a catalog that changed meanwhile fails instead of skipping entries.
+     */
+    public PreEncodedResult page(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Invalid cursor");
+        }
+        int separator = decoded.lastIndexOf(':');
+        if (separator < 0 || !decoded.substring(0, separator).equals(version)) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Cursor is invalid or the catalog changed; list again from the start");
+        }
+        int index;
+        try {
+            index = Integer.parseInt(decoded.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Invalid cursor");
+        }
+        if (index < 0 || index >= pages.size()) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Invalid cursor");
+        }
+        return pages.get(index);
+    }
+
+    static String cursor(String version, int page) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((version + ":" + page).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Strong HTTP entity tag for this snapshot
+     */
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.MCPResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Registers the files listed under {@code mcp.resources.files} as chunked, memory-mapped resources
+ */
+@Slf4j
+@Component
+public class FileResourceRegistrar implements SmartInitializingSingleton {
+
+    private final MCPRegistry registry;
+    private final MCPProperties.Resources settings;
+
+    public FileResourceRegistrar(MCPRegistry registry, MCPProperties properties) {
+        this.registry = registry;
+        this.settings = properties.getResources();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (MCPProperties.FileResource file : settings.getFiles()) {
+            Path path = Paths.get(file.getPath()).toAbsolutePath().normalize();
+            if (!Files.isRegularFile(path)) {
+                log.warn("Skipping file resource {}: {} is not a readable file", file.getUri(), path);
+                continue;
+            }
+            String uri = file.getUri() != null ? file.getUri() : path.toUri().toString();
+            MCPResource resource = MCPResource.builder()
+                    .uri(uri)
+                    .name(file.getName() != null ? file.getName() : path.getFileName().toString())
+                    .description(file.getDescription())
+                    .mimeType(file.getMimeType())
+                    .build();
+            registry.registerResource(resource, new MappedFileResourceReader(path, file.getMimeType(), settings.getChunkSize()));
+            log.info("Registered file resource {} -> {}", uri, path);
+        }
+    }
+}
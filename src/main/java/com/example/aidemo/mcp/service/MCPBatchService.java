@@ -0,0 +1,291 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executes JSON-RPC batches.
+ * In parallel mode every item runs on the bounded batch executor; responses keep the request order
+ * and an item that exceeds its own or the batch deadline fails alone without affecting the others.
+ * An item's own timeout runs from the moment a worker picks it up, so time spent queued behind other
+ * items only counts against the batch deadline.
+ */
+@Slf4j
+@Service
+public class MCPBatchService {
+
+    private final MCPService mcpService;
+    private final ThreadPoolTaskExecutor executor;
+    private final MCPProperties.Batch settings;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+    private final ObjectWriter notificationWriter;
+
+    public MCPBatchService(MCPService mcpService,
+                           @Qualifier("mcpBatchExecutor") ThreadPoolTaskExecutor executor,
+                           MCPProperties properties,
+                           ObjectMapper objectMapper) {
+        this.mcpService = mcpService;
+        this.executor = executor;
+        this.settings = properties.getBatch();
+        this.requestReader = objectMapper.readerFor(JsonRpcRequest.class);
+        this.responseWriter = objectMapper.writerFor(JsonRpcResponse.class);
+        this.notificationWriter = objectMapper.writerFor(JsonRpcNotification.class);
+    }
+
+    /**
+     * Handle a batch of MCP requests, returning one response per request in the same order; notifications
+     * have no entry
+     */
+    public List<JsonRpcResponse> handleBatch(List<JsonRpcRequest> requests) {
+        if (!settings.isParallel() || requests.size() <= 1) {
+            return requests.stream()
+                    .map(request -> mcpService.handleRequest(request, MCPRequestContext.BATCH_ITEM))
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        long batchDeadline = System.nanoTime() + settings.getBatchTimeout().toNanos();
+
+        List<BatchItem> tasks = new ArrayList<>(requests.size());
+        for (JsonRpcRequest request : requests) {
+            tasks.add(submit(request));
+        }
+
+        List<JsonRpcResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            JsonRpcResponse response = await(tasks.get(i), requests.get(i), batchDeadline);
+            if (response != null) {
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Submit a single item, or return null when the executor queue is full
+     */
+    private BatchItem submit(JsonRpcRequest request) {
+        BatchItem task = new BatchItem(() -> mcpService.handleRequest(request, MCPRequestContext.BATCH_ITEM));
+        try {
+            executor.execute(task);
+            return task;
+        } catch (TaskRejectedException e) {
+            log.warn("Batch executor saturated, rejecting request id={}", request.getId());
+            return null;
+        }
+    }
+
+    /**
+     * Wait for a single item until its own deadline, counted from when it started, or the batch deadline,
+     * turning failures into a per-item error response
+     */
+    private JsonRpcResponse await(BatchItem task, JsonRpcRequest request, long batchDeadline) {
+        if (task == null) {
+            return JsonRpcResponse.error(request.getId(), JsonRpcError.SERVER_BUSY, "Server busy: batch queue is full");
+        }
+        try {
+            if (!task.started.await(Math.max(0, batchDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException();
+            }
+            long deadline = Math.min(task.startedAt + settings.getItemTimeout().toNanos(), batchDeadline);
+            return task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("Batch item timed out: method={}, id={}", request.getMethod(), request.getId());
+            return JsonRpcResponse.error(request.getId(), JsonRpcError.REQUEST_TIMEOUT, "Request timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            return JsonRpcResponse.error(request.getId(), -32603, "Internal error: batch interrupted");
+        } catch (ExecutionException e) {
+            log.error("Error handling batch item", e.getCause());
+            return JsonRpcResponse.error(request.getId(), -32603, "Internal error: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * A batch item that records when a worker starts running it
+     */
+    private static final class BatchItem extends FutureTask<JsonRpcResponse> {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile long startedAt;
+
+        private BatchItem(Callable<JsonRpcResponse> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            startedAt = System.nanoTime();
+            started.countDown();
+            super.run();
+        }
+    }
+
+    /**
+     * Handle a streamed batch: the JSON array is read one element at a time and every response is
+     * written as a single NDJSON line as soon as it completes, so responses arrive in completion order
+     * and only {@code maxInFlight} items are held in memory. Items still running when the batch
+     * deadline passes are cancelled and answered with a timeout error.
+     * Progress and partial content of tool calls that carry a progress token are interleaved as
+     * notification lines ahead of their response.
+     */
+    public void handleStreamingBatch(InputStream in, OutputStream out) throws IOException {
+        long batchDeadline = System.nanoTime() + settings.getBatchTimeout().toNanos();
+        int maxInFlight = settings.isParallel() ? Math.max(1, settings.getMaxInFlight()) : 1;
+        Semaphore permits = new Semaphore(maxInFlight);
+        Set<StreamItem> pending = ConcurrentHashMap.newKeySet();
+        NdjsonSink sink = new NdjsonSink(out);
+        MCPRequestContext context = new MCPRequestContext(MCPRequestContext.BATCH, null, sink::write);
+
+        try (MappingIterator<JsonRpcRequest> iterator = requestReader.readValues(in)) {
+            while (!sink.isBroken() && iterator.hasNextValue()) {
+                JsonRpcRequest request = iterator.nextValue();
+                if (!settings.isParallel()) {
+                    sink.write(mcpService.handleRequest(request, context));
+                    continue;
+                }
+                if (!permits.tryAcquire(Math.max(0, batchDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    sink.write(JsonRpcResponse.error(request.getId(), JsonRpcError.REQUEST_TIMEOUT, "Request timed out"));
+                    continue;
+                }
+                StreamItem item = new StreamItem(request);
+                pending.add(item);
+                item.task = new FutureTask<>(() -> {
+                    try {
+                        item.complete(mcpService.handleRequest(request, context), sink);
+                    } finally {
+                        pending.remove(item);
+                        permits.release();
+                    }
+                }, null);
+                try {
+                    executor.execute(item.task);
+                } catch (TaskRejectedException e) {
+                    pending.remove(item);
+                    permits.release();
+                    item.complete(JsonRpcResponse.error(request.getId(), JsonRpcError.SERVER_BUSY, "Server busy: batch queue is full"), sink);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Malformed streaming batch: {}", e.getMessage());
+            sink.write(JsonRpcResponse.error(null, -32700, "Parse error: " + e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        awaitPending(permits, maxInFlight, pending, batchDeadline, sink);
+    }
+
+    /**
+     * Wait until every in-flight item has answered, cancelling the stragglers once the deadline passes
+     */
+    private void awaitPending(Semaphore permits, int maxInFlight, Set<StreamItem> pending, long deadline, NdjsonSink sink) {
+        boolean drained = false;
+        try {
+            drained = permits.tryAcquire(maxInFlight, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drained) {
+            return;
+        }
+        for (StreamItem item : pending) {
+            log.warn("Streaming batch item timed out: method={}, id={}", item.request.getMethod(), item.request.getId());
+            item.complete(JsonRpcResponse.error(item.request.getId(), JsonRpcError.REQUEST_TIMEOUT, "Request timed out"), sink);
+            item.task.cancel(true);
+        }
+    }
+
+    /**
+     * A streamed batch item; whichever of completion or timeout comes first writes the response
+     */
+    private static final class StreamItem {
+        private final JsonRpcRequest request;
+        private final AtomicBoolean responded = new AtomicBoolean();
+        private volatile FutureTask<Void> task;
+
+        private StreamItem(JsonRpcRequest request) {
+            this.request = request;
+        }
+
+        private void complete(JsonRpcResponse response, NdjsonSink sink) {
+            if (responded.compareAndSet(false, true)) {
+                sink.write(response);
+            }
+        }
+    }
+
+    /**
+     * Thread-safe NDJSON writer that flushes every line; stops writing once the client is gone
+     */
+    private final class NdjsonSink {
+        private final OutputStream out;
+        private volatile boolean broken;
+
+        private NdjsonSink(OutputStream out) {
+            this.out = out;
+        }
+
+        private boolean isBroken() {
+            return broken;
+        }
+
+        private void write(JsonRpcResponse response) {
+            if (response != null) {
+                writeLine(responseWriter, response);
+            }
+        }
+
+        private void write(JsonRpcNotification notification) {
+            writeLine(notificationWriter, notification);
+        }
+
+        private void writeLine(ObjectWriter writer, Object message) {
+            if (broken) {
+                return;
+            }
+            try {
+                byte[] line = writer.writeValueAsBytes(message);
+                synchronized (this) {
+                    out.write(line);
+                    out.write('\n');
+                    out.flush();
+                }
+            } catch (IOException e) {
+                log.warn("Streaming batch client disconnected: {}", e.getMessage());
+                broken = true;
+            }
+        }
+    }
+}
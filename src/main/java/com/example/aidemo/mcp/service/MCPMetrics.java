@@ -0,0 +1,136 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.CallToolParams;
+import com.example.aidemo.mcp.model.JsonRpcRequest;
+import com.example.aidemo.mcp.model.JsonRpcResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation of MCP requests.
+ * <ul>
+ *     <li>{@code mcp.requests}: timer with a percentile histogram, tagged by {@code method}, {@code tool},
+ *     {@code transport} and {@code outcome} (success, error or cancelled)</li>
+ *     <li>{@code mcp.requests.active}: gauge of the requests being handled, per {@code transport}</li>
+ *     <li>{@code mcp.requests.errors}: counter of error responses, by {@code method}, {@code transport} and
+ *     JSON-RPC {@code code}</li>
+ * </ul>
+ * Tag values come from the request, so they are bounded before use: unknown methods and tools not in the
+ * registry are tagged {@code unknown}. Meters are looked up once per tag combination and then reused.
+ */
+@Component
+public class MCPMetrics {
+
+    private static final Set<String> METHODS = Set.of(
+            "initialize", "tools/list", "tools/call", "resources/list", "resources/templates/list",
+            "resources/read", "resources/subscribe", "resources/unsubscribe", "prompts/list", "prompts/get");
+    private static final String UNKNOWN = "unknown";
+    private static final String NONE = "none";
+
+    private record TimerKey(String method, String tool, String transport, String outcome) {
+    }
+
+    private record ErrorKey(String method, String transport, int code) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final MCPRegistry registry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public MCPMetrics(MeterRegistry meterRegistry, MCPRegistry registry) {
+        this.meterRegistry = meterRegistry;
+        this.registry = registry;
+    }
+
+    /**
+     * A request being measured; {@link #stop} records it exactly once
+     */
+    public final class Sample {
+        private final String method;
+        private final String tool;
+        private final String transport;
+        private final AtomicInteger activeCount;
+        private final long start = System.nanoTime();
+
+        private Sample(String method, String tool, String transport) {
+            this.method = method;
+            this.tool = tool;
+            this.transport = transport;
+            this.activeCount = active(transport);
+            activeCount.incrementAndGet();
+        }
+
+        /**
+         * Record the request with the outcome of its response; a null response means it was cancelled
+         */
+        public void stop(JsonRpcResponse response) {
+            long elapsed = System.nanoTime() - start;
+            activeCount.decrementAndGet();
+            String outcome;
+            if (response == null) {
+                outcome = "cancelled";
+            } else if (response.getError() != null) {
+                outcome = "error";
+                errors.computeIfAbsent(new ErrorKey(method, transport, response.getError().getCode()), this::errorCounter)
+                        .increment();
+            } else {
+                outcome = "success";
+            }
+            timers.computeIfAbsent(new TimerKey(method, tool, transport, outcome), MCPMetrics.this::timer)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        private Counter errorCounter(ErrorKey key) {
+            return Counter.builder("mcp.requests.errors")
+                    .description("MCP requests answered with a JSON-RPC error")
+                    .tags("method", key.method(), "transport", key.transport(), "code", Integer.toString(key.code()))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Start measuring a request
+     */
+    public Sample start(JsonRpcRequest request, MCPRequestContext context) {
+        String method = request.getMethod() != null && METHODS.contains(request.getMethod()) ? request.getMethod() : UNKNOWN;
+        String tool = "tools/call".equals(method) ? toolTag(request.getParams()) : NONE;
+        return new Sample(method, tool, context.transport());
+    }
+
+    private String toolTag(Object params) {
+        Object name = null;
+        if (params instanceof CallToolParams callParams) {
+            name = callParams.name();
+        } else if (params instanceof Map<?, ?> map) {
+            name = map.get("name");
+        }
+        return name instanceof String toolName && registry.getTool(toolName) != null ? toolName : UNKNOWN;
+    }
+
+    private AtomicInteger active(String transport) {
+        return active.computeIfAbsent(transport, key -> meterRegistry.gauge("mcp.requests.active",
+                Tags.of("transport", key), new AtomicInteger()));
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder("mcp.requests")
+                .description("Latency of MCP requests")
+                .tags("method", key.method(), "tool", key.tool(), "transport", key.transport(), "outcome", key.outcome())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
+}
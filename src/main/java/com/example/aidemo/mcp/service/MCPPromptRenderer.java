@@ -0,0 +1,12 @@
+package com.example.aidemo.mcp.service;
+
+import java.util.Map;
+
+/**
+ * Renders the text of an MCP prompt for prompts/get
+ */
+@FunctionalInterface
+public interface MCPPromptRenderer {
+
+    String render(Map<String, Object> arguments) throws Exception;
+}
@@ -0,0 +1,23 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.ResourceChunk;
+
+/**
+ * Resource reader that serves large content in byte ranges instead of one string
+ */
+public interface MCPRangedResourceReader extends MCPResourceReader {
+
+    /**
+     * Read up to {@code length} bytes starting at {@code offset}; a length of zero or less selects the
+     * reader's default chunk size
+     */
+    ResourceChunk readRange(String uri, long offset, int length) throws Exception;
+
+    /**
+     * The first chunk as a string, for callers that cannot page
+     */
+    @Override
+    default String read(String uri) throws Exception {
+        return readRange(uri, 0, 0).text();
+    }
+}
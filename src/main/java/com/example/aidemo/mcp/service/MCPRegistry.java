@@ -0,0 +1,275 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.MCPPrompt;
+import com.example.aidemo.mcp.model.MCPResource;
+import com.example.aidemo.mcp.model.MCPResourceTemplate;
+import com.example.aidemo.mcp.model.MCPTool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runtime registry of MCP tools, resources and prompts.
+ * Each catalog is an immutable map behind an {@link AtomicReference}: lookups are a plain volatile read,
+ * while register/unregister publish a new copy and emit a {@link CatalogChangedEvent}.
+ */
+@Slf4j
+@Component
+public class MCPRegistry {
+
+    /**
+     * A tool with its handler and its compiled input schema ({@code validator} is null when the tool has no
+     * schema); {@code cache} is null unless the tool opted into result memoization
+     */
+    public record RegisteredTool(MCPTool definition, MCPToolHandler handler, ToolArgumentValidator validator,
+                                 ToolResultCache cache) {
+    }
+
+    public record RegisteredResource(MCPResource definition, MCPResourceReader reader) {
+    }
+
+    public record RegisteredPrompt(MCPPrompt definition, MCPPromptRenderer renderer) {
+    }
+
+    public record RegisteredResourceTemplate(MCPResourceTemplate definition, MCPResourceTemplateReader reader) {
+    }
+
+    /**
+     * A concrete URI resolved against a registered template
+     */
+    public record ResolvedResource(RegisteredResourceTemplate template, Map<String, String> variables) {
+    }
+
+    // Templates and the router compiled from them, swapped together
+    private record TemplateCatalog(Map<String, RegisteredResourceTemplate> templates,
+                                   UriTemplateRouter<RegisteredResourceTemplate> router) {
+    }
+
+    private final AtomicReference<Map<String, RegisteredTool>> tools = new AtomicReference<>(Map.of());
+    private final AtomicReference<Map<String, RegisteredResource>> resources = new AtomicReference<>(Map.of());
+    private final AtomicReference<Map<String, RegisteredPrompt>> prompts = new AtomicReference<>(Map.of());
+    private final AtomicReference<TemplateCatalog> resourceTemplates =
+            new AtomicReference<>(new TemplateCatalog(Map.of(), UriTemplateRouter.compile(Map.of())));
+
+    private final CatalogCache toolsCatalog;
+    private final CatalogCache resourcesCatalog;
+    private final CatalogCache promptsCatalog;
+    private final CatalogCache resourceTemplatesCatalog;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, MCPProperties.ToolCache> toolCacheSettings;
+    private final MeterRegistry meterRegistry;
+
+    public MCPRegistry(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, MCPProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.toolCacheSettings = properties.getToolCache();
+        int pageSize = properties.getCatalogPageSize();
+        this.toolsCatalog = new CatalogCache("tools", () -> definitions(tools, RegisteredTool::definition), objectMapper, pageSize);
+        this.resourcesCatalog = new CatalogCache("resources", () -> definitions(resources, RegisteredResource::definition), objectMapper, pageSize);
+        this.promptsCatalog = new CatalogCache("prompts", () -> definitions(prompts, RegisteredPrompt::definition), objectMapper, pageSize);
+        this.resourceTemplatesCatalog = new CatalogCache("resourceTemplates",
+                () -> resourceTemplates.get().templates().values().stream().map(RegisteredResourceTemplate::definition).toList(),
+                objectMapper, pageSize);
+    }
+
+    public RegisteredTool getTool(String name) {
+        return tools.get().get(name);
+    }
+
+    public RegisteredResource getResource(String uri) {
+        return resources.get().get(uri);
+    }
+
+    public RegisteredPrompt getPrompt(String name) {
+        return prompts.get().get(name);
+    }
+
+    /**
+     * Resolve a URI against the registered resource templates, or null if none matches
+     */
+    public ResolvedResource resolveResourceTemplate(String uri) {
+        UriTemplateRouter.Match<RegisteredResourceTemplate> match = resourceTemplates.get().router().resolve(uri);
+        return match != null ? new ResolvedResource(match.value(), match.variables()) : null;
+    }
+
+    public CatalogSnapshot getToolsSnapshot() {
+        return toolsCatalog.get();
+    }
+
+    public CatalogSnapshot getResourcesSnapshot() {
+        return resourcesCatalog.get();
+    }
+
+    public CatalogSnapshot getPromptsSnapshot() {
+        return promptsCatalog.get();
+    }
+
+    public CatalogSnapshot getResourceTemplatesSnapshot() {
+        return resourceTemplatesCatalog.get();
+    }
+
+    /**
+     * Register a tool, replacing any tool with the same name.
+     * Results are memoized when {@code mcp.tool-cache.<name>} is configured for the tool.
+     */
+    public void registerTool(MCPTool tool, MCPToolHandler handler) {
+        registerTool(tool, handler, toolCacheSettings.get(tool.getName()));
+    }
+
+    /**
+     * Register a deterministic tool whose results are memoized with the given cache settings; a null
+     * {@code cache} registers the tool uncached. The input schema is compiled here, once, and checked
+     * before every call.
+     */
+    public void registerTool(MCPTool tool, MCPToolHandler handler, MCPProperties.ToolCache cache) {
+        ToolArgumentValidator validator = ToolArgumentValidator.compile(tool.getName(), tool.getInputSchema(), meterRegistry);
+        RegisteredTool previous = put(tools, tool.getName(), new RegisteredTool(tool, Objects.requireNonNull(handler),
+                validator, cache != null ? new ToolResultCache(cache) : null));
+        // A validator for the same name reuses the previous timers; without one they would never be updated again
+        if (validator == null && previous != null && previous.validator() != null) {
+            previous.validator().removeMeters();
+        }
+        changed("tools", toolsCatalog);
+    }
+
+    /**
+     * Unregister a tool and drop its validation timers from the meter registry
+     */
+    public boolean unregisterTool(String name) {
+        RegisteredTool removed = remove(tools, name);
+        if (removed == null) {
+            return false;
+        }
+        if (removed.validator() != null) {
+            removed.validator().removeMeters();
+        }
+        return changed("tools", toolsCatalog);
+    }
+
+    /**
+     * Register a resource, replacing any resource with the same URI
+     */
+    public void registerResource(MCPResource resource, MCPResourceReader reader) {
+        put(resources, resource.getUri(), new RegisteredResource(resource, Objects.requireNonNull(reader)));
+        changed("resources", resourcesCatalog);
+        // A replaced reader may serve different content to existing subscribers
+        eventPublisher.publishEvent(new ResourceChangedEvent(resource.getUri()));
+    }
+
+    public boolean unregisterResource(String uri) {
+        if (remove(resources, uri) == null) {
+            return false;
+        }
+        changed("resources", resourcesCatalog);
+        eventPublisher.publishEvent(new ResourceChangedEvent(uri));
+        return true;
+    }
+
+    /**
+     * Register a resource template, replacing any template with the same URI template. Only whole-segment
+     * variables are supported, e.g. {@code resource://db/{table}/{id}}.
+     */
+    public void registerResourceTemplate(MCPResourceTemplate template, MCPResourceTemplateReader reader) {
+        String uriTemplate = Objects.requireNonNull(template.getUriTemplate(), "uriTemplate");
+        UriTemplateRouter.validate(uriTemplate);
+        RegisteredResourceTemplate registered = new RegisteredResourceTemplate(template, Objects.requireNonNull(reader));
+        resourceTemplates.updateAndGet(current -> {
+            Map<String, RegisteredResourceTemplate> next = new LinkedHashMap<>(current.templates());
+            next.put(uriTemplate, registered);
+            return templateCatalog(next);
+        });
+        changed("resources", resourceTemplatesCatalog);
+    }
+
+    public boolean unregisterResourceTemplate(String uriTemplate) {
+        TemplateCatalog previous = resourceTemplates.getAndUpdate(current -> {
+            if (!current.templates().containsKey(uriTemplate)) {
+                return current;
+            }
+            Map<String, RegisteredResourceTemplate> next = new LinkedHashMap<>(current.templates());
+            next.remove(uriTemplate);
+            return templateCatalog(next);
+        });
+        return previous.templates().containsKey(uriTemplate) && changed("resources", resourceTemplatesCatalog);
+    }
+
+    private static TemplateCatalog templateCatalog(Map<String, RegisteredResourceTemplate> templates) {
+        return new TemplateCatalog(Collections.unmodifiableMap(templates), UriTemplateRouter.compile(templates));
+    }
+
+    /**
+     * Register a prompt, replacing any prompt with the same name
+     */
+    public void registerPrompt(MCPPrompt prompt, MCPPromptRenderer renderer) {
+        put(prompts, prompt.getName(), new RegisteredPrompt(prompt, Objects.requireNonNull(renderer)));
+        changed("prompts", promptsCatalog);
+    }
+
+    public boolean unregisterPrompt(String name) {
+        return remove(prompts, name) != null && changed("prompts", promptsCatalog);
+    }
+
+    /**
+     * Hit/miss statistics of every memoized tool
+     */
+    public Map<String, ToolResultCache.Stats> getToolCacheStats() {
+        Map<String, ToolResultCache.Stats> stats = new LinkedHashMap<>();
+        tools.get().forEach((name, tool) -> {
+            if (tool.cache() != null) {
+                stats.put(name, tool.cache().stats());
+            }
+        });
+        return stats;
+    }
+
+    private boolean changed(String catalog, CatalogCache cache) {
+        cache.invalidate();
+        log.info("MCP {} catalog changed", catalog);
+        eventPublisher.publishEvent(new CatalogChangedEvent(catalog));
+        return true;
+    }
+
+    /**
+     * Publish a copy with the entry added, returning the entry it replaced or null
+     */
+    private static <V> V put(AtomicReference<Map<String, V>> ref, String key, V value) {
+        Objects.requireNonNull(key, "key");
+        return ref.getAndUpdate(current -> {
+            Map<String, V> next = new LinkedHashMap<>(current);
+            next.put(key, value);
+            return Collections.unmodifiableMap(next);
+        }).get(key);
+    }
+
+    /**
+     * Publish a copy without the entry, returning the removed entry or null if there was none
+     */
+    private static <V> V remove(AtomicReference<Map<String, V>> ref, String key) {
+        Map<String, V> previous = ref.getAndUpdate(current -> {
+            if (!current.containsKey(key)) {
+                return current;
+            }
+            Map<String, V> next = new LinkedHashMap<>(current);
+            next.remove(key);
+            return Collections.unmodifiableMap(next);
+        });
+        return previous.get(key);
+    }
+
+    private static <V, D> Collection<D> definitions(AtomicReference<Map<String, V>> ref, Function<V, D> definition) {
+        return ref.get().values().stream().map(definition).toList();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport details of the request being handled
+ *
+ * @param transport name of the transport the request arrived on, used to tag metrics
+ * @param sessionId id of the long-lived session the request arrived on, or null for one-shot HTTP requests
+ * @param notifier  delivers notifications to the client while the request runs, or null when the transport
+ *                  can only carry the final response
+ */
+public record MCPRequestContext(String transport, String sessionId, Consumer<JsonRpcNotification> notifier) {
+
+    public static final String HTTP = "http";
+    public static final String BATCH = "batch";
+    public static final String WEBSOCKET = "websocket";
+    public static final String SSE = "sse";
+
+    /**
+     * Context of single requests posted to the HTTP endpoint
+     */
+    public static final MCPRequestContext HTTP_REQUEST = new MCPRequestContext(HTTP, null, null);
+
+    /**
+     * Context of the items of a non-streaming batch
+     */
+    public static final MCPRequestContext BATCH_ITEM = new MCPRequestContext(BATCH, null, null);
+}
@@ -0,0 +1,10 @@
+package com.example.aidemo.mcp.service;
+
+/**
+ * Produces the text content of an MCP resource for resources/read
+ */
+@FunctionalInterface
+public interface MCPResourceReader {
+
+    String read(String uri) throws Exception;
+}
@@ -0,0 +1,16 @@
+package com.example.aidemo.mcp.service;
+
+import java.util.Map;
+
+/**
+ * Produces the text content of a resource addressed through a URI template
+ */
+@FunctionalInterface
+public interface MCPResourceTemplateReader {
+
+    /**
+     * @param uri       the concrete URI being read
+     * @param variables values of the template variables extracted from the URI
+     */
+    String read(String uri, Map<String, String> variables) throws Exception;
+}
@@ -1,11 +1,16 @@
 package com.example.aidemo.mcp.service;
 
 import com.example.aidemo.mcp.model.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * MCP Protocol Service Implementation
@@ -15,18 +20,27 @@ import java.util.*;
 @Service
 public class MCPService {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
+    // Sorted map keys make equal arguments encode identically, which is what result cache keys rely on
+    private final ObjectWriter canonicalWriter;
     
-    // Store registered tools, resources, and prompts
-    private final Map<String, MCPTool> tools = new HashMap<>();
-    private final Map<String, MCPResource> resources = new HashMap<>();
-    private final Map<String, MCPPrompt> prompts = new HashMap<>();
+    // Registered tools, resources, and prompts; can change at runtime
+    private final MCPRegistry registry;
+    private final ResourceSubscriptions subscriptions;
+    private final ToolExecutor toolExecutor;
+    private final MCPMetrics metrics;
 
-    public MCPService() {
-        // Initialize with some example tools and resources
+    public MCPService(ObjectMapper objectMapper, MCPRegistry registry, ResourceSubscriptions subscriptions,
+                      ToolExecutor toolExecutor, MCPMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.registry = registry;
+        this.subscriptions = subscriptions;
+        this.toolExecutor = toolExecutor;
+        this.metrics = metrics;
+        // Initialize with some example tools and resources; prompts are loaded from templates by PromptTemplateLoader
         initializeDefaultTools();
         initializeDefaultResources();
-        initializeDefaultPrompts();
     }
 
     /**
@@ -51,7 +65,7 @@ public class MCPService {
                         "required", Arrays.asList("operation", "a", "b")
                 ))
                 .build();
-        tools.put("calculator", calculatorTool);
+        registry.registerTool(calculatorTool, this::calculate);
 
         // Example: Get current time tool
         MCPTool timeTool = MCPTool.builder()
@@ -67,7 +81,7 @@ public class MCPService {
                         )
                 ))
                 .build();
-        tools.put("get_current_time", timeTool);
+        registry.registerTool(timeTool, this::currentTime);
     }
 
     /**
@@ -80,55 +94,181 @@ public class MCPService {
                 .description("An example resource containing sample data")
                 .mimeType("application/json")
                 .build();
-        resources.put("resource://example/data", exampleResource);
+        registry.registerResource(exampleResource,
+                uri -> "{\"message\": \"This is example data\", \"timestamp\": \"" + new Date() + "\"}");
     }
 
     /**
-     * Initialize default MCP prompts
+     * Handle MCP protocol requests that do not belong to a session
      */
-    private void initializeDefaultPrompts() {
-        MCPPrompt codeReviewPrompt = MCPPrompt.builder()
-                .name("code_review")
-                .description("Review code and provide feedback")
-                .arguments(Arrays.asList(
-                        PromptArgument.builder()
-                                .name("code")
-                                .description("The code to review")
-                                .required(true)
-                                .build(),
-                        PromptArgument.builder()
-                                .name("language")
-                                .description("Programming language")
-                                .required(false)
-                                .build()
-                ))
-                .build();
-        prompts.put("code_review", codeReviewPrompt);
+    public JsonRpcResponse handleRequest(JsonRpcRequest request) {
+        return handleRequest(request, MCPRequestContext.HTTP_REQUEST);
     }
 
     /**
-     * Handle MCP protocol requests
+     * Handle MCP protocol requests.
+     * Returns null when no response must be sent: for requests without an id, which JSON-RPC treats as
+     * notifications and never answers, and for requests the client cancelled.
      */
-    public JsonRpcResponse handleRequest(JsonRpcRequest request) {
+    public JsonRpcResponse handleRequest(JsonRpcRequest request, MCPRequestContext context) {
+        if (isClientNotification(request)) {
+            handleNotification(request, context);
+            return null;
+        }
+        MCPMetrics.Sample sample = metrics.start(request, context);
+        JsonRpcResponse response = null;
+        try {
+            response = dispatch(request, context);
+        } finally {
+            sample.stop(response);
+        }
+        return request.getId() != null ? response : null;
+    }
+
+    /**
+     * Handle MCP protocol requests without holding the calling thread while a tool runs.
+     * A tools/call completes when its bulkhead task does; every other method is cheap and is already answered
+     * when this returns. Completes with null in the same cases where {@link #handleRequest} returns null.
+     */
+    public CompletableFuture<JsonRpcResponse> handleRequestAsync(JsonRpcRequest request, MCPRequestContext context) {
+        if (isClientNotification(request) || !"tools/call".equals(request.getMethod())) {
+            return CompletableFuture.completedFuture(handleRequest(request, context));
+        }
+        MCPMetrics.Sample sample = metrics.start(request, context);
+        CompletableFuture<?> result;
+        try {
+            log.info("Handling MCP request: method={}, id={}", request.getMethod(), request.getId());
+            result = callToolAsync(request.getParams(), context, request.getId());
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result
+                .handle((value, error) -> error == null
+                        ? JsonRpcResponse.success(request.getId(), value)
+                        : errorResponse(request, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error))
+                .whenComplete((response, error) -> sample.stop(response))
+                .thenApply(response -> request.getId() != null ? response : null);
+    }
+
+    /**
+     * Whether the request is a {@code notifications/*} message from the client, such as
+     * notifications/cancelled; these are cheap and transports handle them inline
+     */
+    public static boolean isClientNotification(JsonRpcRequest request) {
+        return request.getId() == null && request.getMethod() != null && request.getMethod().startsWith("notifications/");
+    }
+
+    private JsonRpcResponse dispatch(JsonRpcRequest request, MCPRequestContext context) {
         try {
             log.info("Handling MCP request: method={}, id={}", request.getMethod(), request.getId());
             
             Object result = switch (request.getMethod()) {
                 case "initialize" -> handleInitialize(request.getParams());
-                case "tools/list" -> handleListTools();
-                case "tools/call" -> handleCallTool(request.getParams());
-                case "resources/list" -> handleListResources();
+                case "tools/list" -> handleListTools(request.getParams());
+                case "tools/call" -> handleCallTool(request.getParams(), context, request.getId());
+                case "resources/list" -> handleListResources(request.getParams());
+                case "resources/templates/list" -> listCatalog(registry.getResourceTemplatesSnapshot(), request.getParams());
                 case "resources/read" -> handleReadResource(request.getParams());
-                case "prompts/list" -> handleListPrompts();
+                case "resources/subscribe" -> handleSubscribe(request.getParams(), context);
+                case "resources/unsubscribe" -> handleUnsubscribe(request.getParams(), context);
+                case "prompts/list" -> handleListPrompts(request.getParams());
                 case "prompts/get" -> handleGetPrompt(request.getParams());
                 default -> throw new IllegalArgumentException("Unknown method: " + request.getMethod());
             };
             
             return JsonRpcResponse.success(request.getId(), result);
         } catch (Exception e) {
-            log.error("Error handling MCP request", e);
-            return JsonRpcResponse.error(request.getId(), -32603, "Internal error: " + e.getMessage());
+            return errorResponse(request, e);
+        }
+    }
+
+    /**
+     * The error response for a failed request, or null when the client cancelled it
+     */
+    private JsonRpcResponse errorResponse(JsonRpcRequest request, Throwable e) {
+        if (e instanceof MCPException mcpException) {
+            if (mcpException.getCode() == JsonRpcError.REQUEST_CANCELLED) {
+                log.info("MCP request {} id={} cancelled", request.getMethod(), request.getId());
+                return null;
+            }
+            log.warn("MCP request {} failed: {}", request.getMethod(), e.getMessage());
+            return JsonRpcResponse.error(request.getId(), mcpException.getCode(), e.getMessage(), mcpException.getData());
         }
+        log.error("Error handling MCP request", e);
+        return JsonRpcResponse.error(request.getId(), -32603, "Internal error: " + e.getMessage());
+    }
+
+    /**
+     * Handle a client notification; notifications never get a response
+     */
+    private void handleNotification(JsonRpcRequest notification, MCPRequestContext context) {
+        switch (notification.getMethod()) {
+            case "notifications/cancelled" -> {
+                if (notification.getParams() instanceof InvalidParams invalid) {
+                    log.debug("Ignoring notifications/cancelled: {}", invalid.message());
+                    return;
+                }
+                CancelledParams params = decodeParams(notification.getParams(), CancelledParams.class);
+                if (params != null && toolExecutor.cancel(context, params.requestId())) {
+                    log.info("Cancelled request {}: {}", params.requestId(), params.reason());
+                }
+            }
+            case "notifications/initialized" -> log.debug("Client initialized");
+            default -> log.debug("Ignoring notification {}", notification.getMethod());
+        }
+    }
+
+    /**
+     * Get the current pre-encoded snapshot behind a list method, or null if the method is not a catalog listing
+     */
+    public CatalogSnapshot getCatalogSnapshot(String method) {
+        if (method == null) {
+            return null;
+        }
+        return switch (method) {
+            case "tools/list" -> registry.getToolsSnapshot();
+            case "resources/list" -> registry.getResourcesSnapshot();
+            case "resources/templates/list" -> registry.getResourceTemplatesSnapshot();
+            case "prompts/list" -> registry.getPromptsSnapshot();
+            default -> null;
+        };
+    }
+
+    /**
+     * Serve a catalog listing from its snapshot, one page at a time.
+     * Clients that pass the version they already hold as {@code ifVersion} get a small not-modified result.
+     */
+    private Map<String, Object> listCatalog(CatalogSnapshot snapshot, Object params) {
+        ListParams listParams = decodeParams(params, ListParams.class);
+        if (listParams == null) {
+            return snapshot.result();
+        }
+        if (snapshot.version().equals(listParams.ifVersion())) {
+            return snapshot.notModified();
+        }
+        return listParams.cursor() != null ? snapshot.page(listParams.cursor()) : snapshot.result();
+    }
+
+    /**
+     * Typed params of a request. Requests parsed from JSON already carry the record (see
+     * {@link JsonRpcRequestDeserializer}); only in-process callers passing maps pay for a conversion.
+     */
+    private <T> T decodeParams(Object params, Class<T> type) {
+        if (params instanceof InvalidParams invalid) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Invalid params: " + invalid.message());
+        }
+        if (params == null || type.isInstance(params)) {
+            return type.cast(params);
+        }
+        return objectMapper.convertValue(params, type);
+    }
+
+    private <T> T requireParams(Object params, Class<T> type) {
+        T decoded = decodeParams(params, type);
+        if (decoded == null) {
+            throw new IllegalArgumentException("Missing params");
+        }
+        return decoded;
     }
 
     /**
@@ -138,9 +278,9 @@ public class MCPService {
         Map<String, Object> result = new HashMap<>();
         result.put("protocolVersion", "2024-11-05");
         result.put("capabilities", Map.of(
-                "tools", Map.of("listChanged", false),
-                "resources", Map.of("subscribe", false, "listChanged", false),
-                "prompts", Map.of("listChanged", false)
+                "tools", Map.of("listChanged", true),
+                "resources", Map.of("subscribe", true, "listChanged", true),
+                "prompts", Map.of("listChanged", true)
         ));
         result.put("serverInfo", Map.of(
                 "name", "Spring Boot MCP Server",
@@ -152,162 +292,284 @@ public class MCPService {
     /**
      * Handle list tools request
      */
-    private Map<String, Object> handleListTools() {
-        return Map.of("tools", new ArrayList<>(tools.values()));
+    private Map<String, Object> handleListTools(Object params) {
+        return listCatalog(registry.getToolsSnapshot(), params);
     }
 
     /**
-     * Handle call tool request
+     * A tools/call request that passed lookup and argument validation
      */
-    private Map<String, Object> handleCallTool(Object params) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramsMap = objectMapper.convertValue(params, Map.class);
-        String toolName = (String) paramsMap.get("name");
-        
-        @SuppressWarnings("unchecked")
-        Map<String, Object> arguments = (Map<String, Object>) paramsMap.get("arguments");
+    private record ToolCall(MCPRegistry.RegisteredTool tool, CallToolParams params, String cacheKey) {
+    }
+
+    /**
+     * Resolve the tool of a tools/call request and reject bad arguments before any work starts
+     */
+    private ToolCall prepareToolCall(Object params) throws JsonProcessingException {
+        CallToolParams callParams = requireParams(params, CallToolParams.class);
+        String toolName = callParams.name();
+        Map<String, Object> arguments = callParams.arguments();
         
-        if (!tools.containsKey(toolName)) {
+        MCPRegistry.RegisteredTool tool = registry.getTool(toolName);
+        if (tool == null) {
             throw new IllegalArgumentException("Tool not found: " + toolName);
         }
+        if (tool.validator() != null) {
+            List<String> violations = tool.validator().validate(arguments);
+            if (!violations.isEmpty()) {
+                throw new MCPException(JsonRpcError.INVALID_PARAMS,
+                        "Invalid arguments for tool " + toolName + ": " + String.join("; ", violations),
+                        Map.of("violations", violations));
+            }
+        }
+        // Deterministic tools are keyed by their canonical arguments
+        String cacheKey = tool.cache() != null
+                ? canonicalWriter.writeValueAsString(arguments != null ? arguments : Map.of())
+                : null;
+        return new ToolCall(tool, callParams, cacheKey);
+    }
+
+    /**
+     * Handle call tool request
+     */
+    private Map<String, Object> handleCallTool(Object params, MCPRequestContext context, Object requestId) throws Exception {
+        ToolCall call = prepareToolCall(params);
         
-        // Execute the tool
-        Object toolResult = executeTool(toolName, arguments);
-        
-        return Map.of(
-                "content", List.of(
-                        Map.of(
-                                "type", "text",
-                                "text", String.valueOf(toolResult)
-                        )
-                )
-        );
+        // Run the tool in its bulkhead, bounded by its deadline and cancellable by the client
+        if (call.cacheKey() == null) {
+            return runTool(call, new ToolCallReporter(call.params().progressToken(), context.notifier()), context, requestId);
+        }
+
+        // Deterministic tool: answer repeated arguments from memory, already encoded. Its content is always
+        // collected into the result, since that is what gets cached.
+        return call.tool().cache().get(call.cacheKey(),
+                () -> preEncode(runTool(call, new ToolCallReporter(null, null), context, requestId)));
     }
 
     /**
-     * Execute a specific tool
+     * Handle call tool request without waiting for the tool; same behavior as {@link #handleCallTool}
      */
-    private Object executeTool(String toolName, Map<String, Object> arguments) {
-        return switch (toolName) {
-            case "calculator" -> {
-                String operation = (String) arguments.get("operation");
-                Number a = (Number) arguments.get("a");
-                Number b = (Number) arguments.get("b");
-                double result = switch (operation) {
-                    case "add" -> a.doubleValue() + b.doubleValue();
-                    case "subtract" -> a.doubleValue() - b.doubleValue();
-                    case "multiply" -> a.doubleValue() * b.doubleValue();
-                    case "divide" -> {
-                        if (b.doubleValue() == 0) {
-                            throw new IllegalArgumentException("Division by zero");
-                        }
-                        yield a.doubleValue() / b.doubleValue();
+    private CompletableFuture<?> callToolAsync(Object params, MCPRequestContext context, Object requestId) throws Exception {
+        ToolCall call = prepareToolCall(params);
+        if (call.cacheKey() == null) {
+            return runToolAsync(call, new ToolCallReporter(call.params().progressToken(), context.notifier()), context, requestId);
+        }
+        return call.tool().cache().getAsync(call.cacheKey(),
+                () -> runToolAsync(call, new ToolCallReporter(null, null), context, requestId).thenApply(result -> {
+                    try {
+                        return preEncode(result);
+                    } catch (JsonProcessingException e) {
+                        throw new CompletionException(e);
                     }
-                    default -> throw new IllegalArgumentException("Unknown operation: " + operation);
-                };
-                yield String.format("Result: %.2f", result);
-            }
-            case "get_current_time" -> {
-                String timezone = arguments != null ? (String) arguments.get("timezone") : "UTC";
-                yield "Current time (" + timezone + "): " + new Date();
+                }));
+    }
+
+    private Map<String, Object> runTool(ToolCall call, ToolCallReporter reporter, MCPRequestContext context, Object requestId) throws Exception {
+        MCPRegistry.RegisteredTool tool = call.tool();
+        Map<String, Object> arguments = call.params().arguments();
+        try {
+            return reporter.result(toolExecutor.execute(tool.definition().getName(),
+                    () -> tool.handler().execute(arguments, reporter), context, requestId));
+        } finally {
+            reporter.close();
+        }
+    }
+
+    private CompletableFuture<Map<String, Object>> runToolAsync(ToolCall call, ToolCallReporter reporter,
+                                                                MCPRequestContext context, Object requestId) {
+        MCPRegistry.RegisteredTool tool = call.tool();
+        Map<String, Object> arguments = call.params().arguments();
+        return toolExecutor.submit(tool.definition().getName(), () -> tool.handler().execute(arguments, reporter), context, requestId)
+                .thenApply(reporter::result)
+                .whenComplete((result, error) -> reporter.close());
+    }
+
+    private PreEncodedResult preEncode(Map<String, Object> result) throws JsonProcessingException {
+        return new PreEncodedResult(result, objectMapper.writeValueAsString(result));
+    }
+
+    /**
+     * Hit/miss statistics of the memoized tools
+     */
+    public Map<String, ToolResultCache.Stats> getToolCacheStats() {
+        return registry.getToolCacheStats();
+    }
+
+    /**
+     * Calculator tool
+     */
+    private Object calculate(Map<String, Object> arguments) {
+        String operation = (String) arguments.get("operation");
+        Number a = (Number) arguments.get("a");
+        Number b = (Number) arguments.get("b");
+        double result = switch (operation) {
+            case "add" -> a.doubleValue() + b.doubleValue();
+            case "subtract" -> a.doubleValue() - b.doubleValue();
+            case "multiply" -> a.doubleValue() * b.doubleValue();
+            case "divide" -> {
+                if (b.doubleValue() == 0) {
+                    throw new IllegalArgumentException("Division by zero");
+                }
+                yield a.doubleValue() / b.doubleValue();
             }
-            default -> "Tool executed: " + toolName;
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
         };
+        return String.format("Result: %.2f", result);
+    }
+
+    /**
+     * Current time tool
+     */
+    private Object currentTime(Map<String, Object> arguments) {
+        String timezone = arguments != null ? (String) arguments.get("timezone") : "UTC";
+        return "Current time (" + timezone + "): " + new Date();
     }
 
     /**
      * Handle list resources request
      */
-    private Map<String, Object> handleListResources() {
-        return Map.of("resources", new ArrayList<>(resources.values()));
+    private Map<String, Object> handleListResources(Object params) {
+        return listCatalog(registry.getResourcesSnapshot(), params);
     }
 
     /**
      * Handle read resource request
      */
-    private Map<String, Object> handleReadResource(Object params) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramsMap = objectMapper.convertValue(params, Map.class);
-        String uri = (String) paramsMap.get("uri");
+    private Map<String, Object> handleReadResource(Object params) throws Exception {
+        ReadResourceParams readParams = requireParams(params, ReadResourceParams.class);
+        String uri = readParams.uri();
         
-        if (!resources.containsKey(uri)) {
-            throw new IllegalArgumentException("Resource not found: " + uri);
+        MCPRegistry.RegisteredResource registered = registry.getResource(uri);
+        if (registered == null) {
+            return readTemplatedResource(uri);
+        }
+        if (registered.reader() instanceof MCPRangedResourceReader ranged) {
+            return readChunk(ranged, readParams);
         }
         
-        MCPResource resource = resources.get(uri);
+        MCPResource resource = registered.definition();
         
         return Map.of(
                 "contents", List.of(
                         Map.of(
                                 "uri", resource.getUri(),
                                 "mimeType", resource.getMimeType(),
-                                "text", getResourceContent(uri)
+                                "text", registered.reader().read(uri)
                         )
                 )
         );
     }
 
     /**
-     * Get resource content by URI
+     * Read a resource addressed through a URI template; the URI is resolved by the registry's router
      */
-    private String getResourceContent(String uri) {
-        // In a real implementation, this would fetch actual resource data
-        return switch (uri) {
-            case "resource://example/data" -> "{\"message\": \"This is example data\", \"timestamp\": \"" + new Date() + "\"}";
-            default -> "{}";
-        };
+    private Map<String, Object> readTemplatedResource(String uri) throws Exception {
+        MCPRegistry.ResolvedResource resolved = registry.resolveResourceTemplate(uri);
+        if (resolved == null) {
+            throw new IllegalArgumentException("Resource not found: " + uri);
+        }
+        MCPResourceTemplate template = resolved.template().definition();
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("uri", uri);
+        if (template.getMimeType() != null) {
+            content.put("mimeType", template.getMimeType());
+        }
+        content.put("text", resolved.template().reader().read(uri, resolved.variables()));
+        return Map.of("contents", List.of(content));
+    }
+
+    /**
+     * Read one chunk of a large resource; {@code nextCursor} is present while more content follows
+     */
+    private Map<String, Object> readChunk(MCPRangedResourceReader reader, ReadResourceParams params) throws Exception {
+        long offset = params.offset() != null ? params.offset() : decodeCursor(params.cursor());
+        ResourceChunk chunk = reader.readRange(params.uri(), offset, params.length() != null ? params.length() : 0);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("contents", List.of(chunk));
+        if (chunk.hasMore()) {
+            result.put("nextCursor", Long.toString(chunk.end()));
+        }
+        result.put("_meta", Map.of("offset", chunk.offset(), "length", chunk.length(), "size", chunk.size()));
+        return result;
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Handle subscribe request; changes are pushed to the session as notifications/resources/updated
+     */
+    private Map<String, Object> handleSubscribe(Object params, MCPRequestContext context) {
+        String uri = requireParams(params, SubscribeParams.class).uri();
+        if (registry.getResource(uri) == null && registry.resolveResourceTemplate(uri) == null) {
+            throw new IllegalArgumentException("Resource not found: " + uri);
+        }
+        subscriptions.subscribe(requireSession(context), uri);
+        return Map.of();
+    }
+
+    /**
+     * Handle unsubscribe request
+     */
+    private Map<String, Object> handleUnsubscribe(Object params, MCPRequestContext context) {
+        String uri = requireParams(params, SubscribeParams.class).uri();
+        subscriptions.unsubscribe(requireSession(context), uri);
+        return Map.of();
+    }
+
+    private String requireSession(MCPRequestContext context) {
+        if (context == null || context.sessionId() == null) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Subscriptions require a session-based transport such as /mcp/ws");
+        }
+        return context.sessionId();
     }
 
     /**
      * Handle list prompts request
      */
-    private Map<String, Object> handleListPrompts() {
-        return Map.of("prompts", new ArrayList<>(prompts.values()));
+    private Map<String, Object> handleListPrompts(Object params) {
+        return listCatalog(registry.getPromptsSnapshot(), params);
     }
 
     /**
      * Handle get prompt request
      */
-    private Map<String, Object> handleGetPrompt(Object params) {
-        @SuppressWarnings("unchecked")
-        Map<String, Object> paramsMap = objectMapper.convertValue(params, Map.class);
-        String promptName = (String) paramsMap.get("name");
+    private Map<String, Object> handleGetPrompt(Object params) throws Exception {
+        GetPromptParams promptParams = requireParams(params, GetPromptParams.class);
+        String promptName = promptParams.name();
+        Map<String, Object> arguments = promptParams.arguments() != null ? promptParams.arguments() : Map.of();
         
-        @SuppressWarnings("unchecked")
-        Map<String, Object> arguments = (Map<String, Object>) paramsMap.getOrDefault("arguments", new HashMap<>());
-        
-        if (!prompts.containsKey(promptName)) {
+        MCPRegistry.RegisteredPrompt registered = registry.getPrompt(promptName);
+        if (registered == null) {
             throw new IllegalArgumentException("Prompt not found: " + promptName);
         }
         
-        MCPPrompt prompt = prompts.get(promptName);
-        String promptText = generatePromptText(promptName, arguments);
+        MCPPrompt prompt = registered.definition();
+        String promptText = registered.renderer().render(arguments);
         
-        return Map.of(
-                "description", prompt.getDescription(),
-                "messages", List.of(
-                        Map.of(
-                                "role", "user",
-                                "content", Map.of(
-                                        "type", "text",
-                                        "text", promptText
-                                )
+        // Templates without front matter have no description; omit the key rather than emit null
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (prompt.getDescription() != null) {
+            result.put("description", prompt.getDescription());
+        }
+        result.put("messages", List.of(
+                Map.of(
+                        "role", "user",
+                        "content", Map.of(
+                                "type", "text",
+                                "text", promptText
                         )
                 )
-        );
-    }
-
-    /**
-     * Generate prompt text based on prompt name and arguments
-     */
-    private String generatePromptText(String promptName, Map<String, Object> arguments) {
-        return switch (promptName) {
-            case "code_review" -> {
-                String code = (String) arguments.get("code");
-                String language = (String) arguments.getOrDefault("language", "unknown");
-                yield String.format("Please review the following %s code:\n\n%s", language, code);
-            }
-            default -> "Prompt: " + promptName;
-        };
+        ));
+        return result;
     }
 }
@@ -0,0 +1,20 @@
+package com.example.aidemo.mcp.service;
+
+import java.util.Map;
+
+/**
+ * Executes an MCP tool with the arguments of a tools/call request
+ */
+@FunctionalInterface
+public interface MCPToolHandler {
+
+    Object execute(Map<String, Object> arguments) throws Exception;
+
+    /**
+     * Execute with a progress reporter; long-running tools override this to report progress and emit
+     * content as it is produced. The return value, if not null, is appended as the last content item.
+     */
+    default Object execute(Map<String, Object> arguments, ToolProgress progress) throws Exception {
+        return execute(arguments);
+    }
+}
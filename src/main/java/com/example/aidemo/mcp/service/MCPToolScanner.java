@@ -0,0 +1,92 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.MCPTool;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes Spring AI {@link Tool} methods of application beans as MCP tools.
+ * Candidate beans are collected while the context starts; once all singletons exist each method is
+ * described with the same schema Spring AI uses for tool calling and registered with a precompiled
+ * {@link MethodToolHandler}.
+ */
+@Slf4j
+@Component
+public class MCPToolScanner implements BeanPostProcessor, SmartInitializingSingleton {
+
+    private static final TypeReference<Map<String, Object>> SCHEMA_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectProvider<MCPRegistry> registry;
+    private final ObjectProvider<ObjectMapper> objectMapper;
+    private final List<ToolBean> toolBeans = new ArrayList<>();
+
+    private record ToolBean(Object bean, Map<Method, Tool> methods) {
+    }
+
+    public MCPToolScanner(ObjectProvider<MCPRegistry> registry, ObjectProvider<ObjectMapper> objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!AnnotationUtils.isCandidateClass(targetClass, Tool.class)) {
+            return bean;
+        }
+        Map<Method, Tool> methods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<Tool>) method -> AnnotatedElementUtils.findMergedAnnotation(method, Tool.class));
+        if (!methods.isEmpty()) {
+            synchronized (toolBeans) {
+                toolBeans.add(new ToolBean(bean, methods));
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MCPRegistry mcpRegistry = registry.getObject();
+        ObjectMapper mapper = objectMapper.getObject();
+        synchronized (toolBeans) {
+            for (ToolBean toolBean : toolBeans) {
+                toolBean.methods().keySet().forEach(method -> register(mcpRegistry, mapper, toolBean.bean(), method));
+            }
+            toolBeans.clear();
+        }
+    }
+
+    private void register(MCPRegistry mcpRegistry, ObjectMapper mapper, Object bean, Method method) {
+        try {
+            Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+            ToolDefinition definition = ToolDefinitions.from(method);
+            MCPTool tool = MCPTool.builder()
+                    .name(definition.name())
+                    .description(definition.description())
+                    .inputSchema(mapper.readValue(definition.inputSchema(), SCHEMA_TYPE))
+                    .build();
+            mcpRegistry.registerTool(tool, new MethodToolHandler(definition.name(), bean, invocable, mapper));
+            log.info("Registered MCP tool {} from {}", definition.name(), method);
+        } catch (Exception e) {
+            log.error("Failed to register MCP tool from {}", method, e);
+        }
+    }
+}
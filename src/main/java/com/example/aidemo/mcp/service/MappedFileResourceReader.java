@@ -0,0 +1,159 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.MCPException;
+import com.example.aidemo.mcp.model.ResourceChunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Serves a file resource in chunks read through a memory mapping.
+ * The mapping is created on first use and replaced only when the file's size or modification time changes,
+ * so consecutive chunk reads come from the same mapping and the whole file is never read onto the heap.
+ * Each chunk is copied out of the mapping before it is handed off: a slice of a live mapping would fault
+ * during serialization if the file were truncated in the meantime. A fault during the copy itself is reported
+ * as a changed resource. Text chunks are trimmed so they never split a UTF-8 sequence.
+ */
+public class MappedFileResourceReader implements MCPRangedResourceReader {
+
+    private record Mapping(MappedByteBuffer buffer, long size, FileTime modified) {
+    }
+
+    private final Path path;
+    private final String mimeType;
+    private final boolean text;
+    private final int chunkSize;
+    private volatile Mapping mapping;
+
+    public MappedFileResourceReader(Path path, String mimeType, int chunkSize) {
+        this.path = path;
+        this.mimeType = mimeType;
+        this.text = isText(mimeType);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ResourceChunk readRange(String uri, long offset, int length) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        if (offset < 0 || offset > size) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Offset " + offset + " is outside " + uri + " (" + size + " bytes)");
+        }
+        int limit = (int) Math.min(length > 0 ? Math.min(length, chunkSize) : chunkSize, size - offset);
+
+        ByteBuffer range;
+        if (size <= Integer.MAX_VALUE) {
+            range = copy(uri, mapping(size, attributes.lastModifiedTime()).slice((int) offset, limit));
+        } else {
+            // A single mapping cannot exceed 2 GB; map just the requested range
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                range = copy(uri, channel.map(FileChannel.MapMode.READ_ONLY, offset, limit));
+            }
+        }
+        if (Files.size(path) < offset + limit) {
+            // Truncated while copying; the tail of the copy may not be the file's content
+            throw changed(uri);
+        }
+
+        if (!text) {
+            return new ResourceChunk(uri, mimeType, range, false, offset, size);
+        }
+        // Skip continuation bytes at the start and drop a trailing incomplete sequence, so consecutive
+        // chunks split between characters and every cursor lands on a character boundary
+        int start = offset == 0 ? 0 : skipContinuation(range);
+        int end = offset + limit == size ? limit : completeSequencesEnd(range, start);
+        if (end == start && limit > 0) {
+            // Too short for a single character; return the raw bytes rather than an empty chunk
+            end = limit;
+        }
+        return new ResourceChunk(uri, mimeType, range.slice(start, end - start), true, offset + start, size);
+    }
+
+    private MappedByteBuffer mapping(long size, FileTime modified) throws IOException {
+        Mapping current = mapping;
+        if (current == null || current.size() != size || !current.modified().equals(modified)) {
+            synchronized (this) {
+                current = mapping;
+                if (current == null || current.size() != size || !current.modified().equals(modified)) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        current = new Mapping(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), size, modified);
+                    }
+                    mapping = current;
+                }
+            }
+        }
+        return current.buffer();
+    }
+
+    /**
+     * Copy a mapped range onto the heap; touching pages past the end of a truncated file raises an
+     * InternalError (SIGBUS) instead of an IOException
+     */
+    private static ByteBuffer copy(String uri, ByteBuffer mapped) {
+        ByteBuffer copy = ByteBuffer.allocate(mapped.remaining());
+        try {
+            copy.put(mapped);
+        } catch (InternalError e) {
+            throw changed(uri);
+        }
+        return copy.flip();
+    }
+
+    private static MCPException changed(String uri) {
+        return new MCPException(JsonRpcError.INTERNAL_ERROR, "Resource changed while it was read: " + uri);
+    }
+
+    private static int skipContinuation(ByteBuffer range) {
+        int start = 0;
+        while (start < range.limit() && isContinuation(range.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * End of the last complete UTF-8 sequence; walks back to the lead byte of the final sequence (at most
+     * three continuation bytes) and drops it if the range cuts it short
+     */
+    private static int completeSequencesEnd(ByteBuffer range, int start) {
+        int end = range.limit();
+        int lead = end - 1;
+        while (lead > start && end - lead < 4 && isContinuation(range.get(lead))) {
+            lead--;
+        }
+        if (lead >= start && sequenceLength(range.get(lead)) > end - lead) {
+            return lead;
+        }
+        return end;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static int sequenceLength(byte lead) {
+        if ((lead & 0x80) == 0) {
+            return 1;
+        }
+        if ((lead & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((lead & 0xF0) == 0xE0) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private static boolean isText(String mimeType) {
+        return mimeType == null || mimeType.startsWith("text/") || mimeType.endsWith("json")
+                || mimeType.endsWith("xml") || mimeType.endsWith("yaml") || mimeType.equals("application/javascript");
+    }
+}
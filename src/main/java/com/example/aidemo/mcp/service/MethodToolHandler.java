@@ -0,0 +1,124 @@
+package com.example.aidemo.mcp.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Tool handler backed by an annotated bean method.
+ * The method is bound once to a spreading {@link MethodHandle} and every parameter gets a converter
+ * chosen from its declared type, so a call is a map lookup per argument plus an exact invocation.
+ */
+final class MethodToolHandler implements MCPToolHandler {
+
+    private final String toolName;
+    private final MethodHandle invoker;
+    private final String[] parameterNames;
+    private final Function<Object, Object>[] converters;
+    private final boolean returnsVoid;
+    private final ObjectMapper objectMapper;
+
+    @SuppressWarnings("unchecked")
+    MethodToolHandler(String toolName, Object bean, Method method, ObjectMapper objectMapper) throws IllegalAccessException {
+        this.toolName = toolName;
+        this.objectMapper = objectMapper;
+        this.returnsVoid = method.getReturnType() == void.class;
+
+        Parameter[] parameters = method.getParameters();
+        this.parameterNames = new String[parameters.length];
+        this.converters = new Function[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = parameters[i].getName();
+            converters[i] = converterFor(parameters[i], objectMapper);
+        }
+
+        ReflectionUtils.makeAccessible(method);
+        this.invoker = MethodHandles.lookup().unreflect(method)
+                .bindTo(bean)
+                .asSpreader(Object[].class, parameters.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments) throws Exception {
+        Object[] args = new Object[parameterNames.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = converters[i].apply(arguments != null ? arguments.get(parameterNames[i]) : null);
+        }
+
+        Object result;
+        try {
+            result = (Object) invoker.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Tool " + toolName + " failed", t);
+        }
+
+        if (returnsVoid) {
+            return "Done";
+        }
+        if (result == null || result instanceof CharSequence || result instanceof Number || result instanceof Boolean) {
+            return result;
+        }
+        return objectMapper.writeValueAsString(result);
+    }
+
+    /**
+     * Pick a converter from the JSON value to the parameter type; common scalar types avoid Jackson entirely
+     */
+    private static Function<Object, Object> converterFor(Parameter parameter, ObjectMapper objectMapper) {
+        Class<?> type = parameter.getType();
+        String name = parameter.getName();
+        if (type == String.class) {
+            return value -> value != null ? value.toString() : null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return number(name, type.isPrimitive(), Number::intValue);
+        }
+        if (type == long.class || type == Long.class) {
+            return number(name, type.isPrimitive(), Number::longValue);
+        }
+        if (type == double.class || type == Double.class) {
+            return number(name, type.isPrimitive(), Number::doubleValue);
+        }
+        if (type == float.class || type == Float.class) {
+            return number(name, type.isPrimitive(), Number::floatValue);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            boolean primitive = type.isPrimitive();
+            return value -> {
+                if (value == null) {
+                    return primitive ? requireArgument(name) : null;
+                }
+                return value instanceof Boolean ? value : Boolean.valueOf(value.toString());
+            };
+        }
+        JavaType javaType = objectMapper.constructType(parameter.getParameterizedType());
+        return value -> value != null ? objectMapper.convertValue(value, javaType) : null;
+    }
+
+    private static Function<Object, Object> number(String name, boolean primitive, Function<Number, Object> narrow) {
+        return value -> {
+            if (value == null) {
+                return primitive ? requireArgument(name) : null;
+            }
+            if (value instanceof Number number) {
+                return narrow.apply(number);
+            }
+            return narrow.apply(Double.valueOf(value.toString()));
+        };
+    }
+
+    private static Object requireArgument(String name) {
+        throw new IllegalArgumentException("Missing required argument: " + name);
+    }
+}
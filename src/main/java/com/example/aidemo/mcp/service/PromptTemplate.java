@@ -0,0 +1,151 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.MCPException;
+import com.example.aidemo.mcp.model.MCPPrompt;
+import com.example.aidemo.mcp.model.PromptArgument;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prompt template compiled into alternating literal and placeholder segments.
+ * Template files start with an optional YAML front matter block describing the prompt:
+ * <pre>
+ * ---
+ * name: code_review
+ * description: Review code and provide feedback
+ * arguments:
+ *   - name: code
+ *     required: true
+ * ---
+ * Please review the following {{language:unknown}} code: {{code}}
+ * </pre>
+ * {@code {{name}}} is replaced by the argument value and {@code {{name:default}}} falls back to the default
+ * when the argument is absent. The text is parsed once; rendering appends the segments into a per-thread
+ * builder that is reused across calls.
+ */
+public final class PromptTemplate implements MCPPromptRenderer {
+
+    private static final String FRONT_MATTER = "---";
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final MCPPrompt definition;
+    private final String[] requiredArguments;
+    // Segment i is literals[i] followed by placeholder i; the last literal has no placeholder after it
+    private final String[] literals;
+    private final String[] variables;
+    private final String[] defaults;
+    private final int literalLength;
+
+    private PromptTemplate(MCPPrompt definition, List<String> literals, List<String> variables, List<String> defaults) {
+        this.definition = definition;
+        this.requiredArguments = definition.getArguments() == null ? new String[0]
+                : definition.getArguments().stream().filter(PromptArgument::isRequired).map(PromptArgument::getName).toArray(String[]::new);
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.defaults = defaults.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public MCPPrompt definition() {
+        return definition;
+    }
+
+    @Override
+    public String render(Map<String, Object> arguments) {
+        for (String name : requiredArguments) {
+            if (arguments.get(name) == null) {
+                throw new MCPException(JsonRpcError.INVALID_PARAMS,
+                        "Missing required argument for prompt " + definition.getName() + ": " + name);
+            }
+        }
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            out.ensureCapacity(literalLength + 64 * variables.length);
+            for (int i = 0; i < variables.length; i++) {
+                out.append(literals[i]);
+                Object value = arguments.get(variables[i]);
+                if (value != null) {
+                    out.append(value);
+                } else if (defaults[i] != null) {
+                    out.append(defaults[i]);
+                }
+            }
+            out.append(literals[variables.length]);
+            return out.toString();
+        } finally {
+            // Keep the builder for the next call unless a huge render inflated it
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Parse a template file; {@code defaultName} names the prompt when the front matter does not
+     */
+    @SuppressWarnings("unchecked")
+    public static PromptTemplate parse(String defaultName, String source) {
+        String text = source.replace("\r\n", "\n");
+        Map<String, Object> meta = Map.of();
+        if (text.startsWith(FRONT_MATTER + "\n")) {
+            int end = text.indexOf("\n" + FRONT_MATTER, FRONT_MATTER.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated front matter in prompt " + defaultName);
+            }
+            Object loaded = new Yaml().load(text.substring(FRONT_MATTER.length() + 1, end));
+            if (loaded instanceof Map<?, ?> map) {
+                meta = (Map<String, Object>) map;
+            }
+            int bodyStart = text.indexOf('\n', end + 1);
+            text = bodyStart < 0 ? "" : text.substring(bodyStart + 1);
+        }
+        if (text.endsWith("\n")) {
+            text = text.substring(0, text.length() - 1);
+        }
+
+        List<PromptArgument> arguments = new ArrayList<>();
+        if (meta.get("arguments") instanceof List<?> declared) {
+            for (Object item : declared) {
+                if (item instanceof Map<?, ?> argument) {
+                    arguments.add(PromptArgument.builder()
+                            .name(String.valueOf(argument.get("name")))
+                            .description(argument.get("description") != null ? String.valueOf(argument.get("description")) : null)
+                            .required(Boolean.TRUE.equals(argument.get("required")))
+                            .build());
+                }
+            }
+        }
+        MCPPrompt definition = MCPPrompt.builder()
+                .name(meta.get("name") != null ? String.valueOf(meta.get("name")) : defaultName)
+                .description(meta.get("description") != null ? String.valueOf(meta.get("description")) : null)
+                .arguments(arguments.isEmpty() ? null : arguments)
+                .build();
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<String> defaults = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = text.indexOf("{{", position);
+            int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+            if (close < 0) {
+                literals.add(text.substring(position));
+                break;
+            }
+            literals.add(text.substring(position, open));
+            String placeholder = text.substring(open + 2, close).trim();
+            int colon = placeholder.indexOf(':');
+            variables.add(colon < 0 ? placeholder : placeholder.substring(0, colon).trim());
+            defaults.add(colon < 0 ? null : placeholder.substring(colon + 1));
+            position = close + 2;
+        }
+        return new PromptTemplate(definition, literals, variables, defaults);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.support.DirectoryWatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads prompt templates into the {@link MCPRegistry}.
+ * Bundled templates are read once at startup; templates in {@code mcp.prompts.directory} override them and,
+ * when watching is enabled, are recompiled and re-registered as soon as a file is created, changed or
+ * deleted, which in turn notifies clients through {@code notifications/prompts/list_changed}.
+ */
+@Slf4j
+@Component
+public class PromptTemplateLoader implements SmartInitializingSingleton, DisposableBean {
+
+    private final MCPRegistry registry;
+    private final ResourcePatternResolver resourceResolver;
+    private final MCPProperties.Prompts settings;
+
+    // Bundled templates by prompt name, restored when an overriding file is deleted
+    private final Map<String, PromptTemplate> builtin = new HashMap<>();
+    // Prompt name registered from each template file of the directory
+    private final Map<Path, String> fileTemplates = new ConcurrentHashMap<>();
+
+    private DirectoryWatcher watcher;
+
+    public PromptTemplateLoader(MCPRegistry registry, ResourcePatternResolver resourceResolver, MCPProperties properties) {
+        this.registry = registry;
+        this.resourceResolver = resourceResolver;
+        this.settings = properties.getPrompts();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        loadBuiltin();
+        if (!StringUtils.hasText(settings.getDirectory())) {
+            return;
+        }
+        Path directory = Paths.get(settings.getDirectory()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(directory)) {
+            log.warn("Prompt template directory {} does not exist", directory);
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, this::isTemplate)) {
+            files.forEach(this::load);
+        } catch (IOException e) {
+            log.error("Failed to list prompt templates in {}", directory, e);
+        }
+        if (settings.isWatch()) {
+            watch(directory);
+        }
+    }
+
+    private void loadBuiltin() {
+        try {
+            for (Resource resource : resourceResolver.getResources(settings.getBuiltinLocation())) {
+                String filename = resource.getFilename();
+                try (InputStream in = resource.getInputStream()) {
+                    PromptTemplate template = PromptTemplate.parse(baseName(filename), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    builtin.put(template.definition().getName(), template);
+                    registry.registerPrompt(template.definition(), template);
+                } catch (RuntimeException | IOException e) {
+                    log.error("Failed to load prompt template {}", resource, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to resolve prompt templates at {}", settings.getBuiltinLocation(), e);
+        }
+    }
+
+    private void load(Path file) {
+        try {
+            PromptTemplate template = PromptTemplate.parse(baseName(file.getFileName().toString()), Files.readString(file));
+            String name = template.definition().getName();
+            String previous = fileTemplates.put(file, name);
+            if (previous != null && !previous.equals(name)) {
+                removed(previous);
+            }
+            registry.registerPrompt(template.definition(), template);
+            log.info("Loaded prompt template {} from {}", name, file);
+        } catch (RuntimeException | IOException e) {
+            // Keep serving the last good version of the template
+            log.error("Failed to load prompt template {}", file, e);
+        }
+    }
+
+    private void unload(Path file) {
+        String name = fileTemplates.remove(file);
+        if (name != null) {
+            removed(name);
+            log.info("Unloaded prompt template {} ({} deleted)", name, file);
+        }
+    }
+
+    private void removed(String name) {
+        if (fileTemplates.containsValue(name)) {
+            return;
+        }
+        PromptTemplate fallback = builtin.get(name);
+        if (fallback != null) {
+            registry.registerPrompt(fallback.definition(), fallback);
+        } else {
+            registry.unregisterPrompt(name);
+        }
+    }
+
+    private void watch(Path directory) {
+        try {
+            watcher = DirectoryWatcher.start(directory, "mcp-prompt-watcher", this::reload);
+        } catch (IOException e) {
+            log.error("Failed to watch prompt template directory {}", directory, e);
+        }
+    }
+
+    private void reload(Set<Path> changed) {
+        for (Path file : changed) {
+            if (!isTemplate(file)) {
+                continue;
+            }
+            if (Files.isRegularFile(file)) {
+                load(file);
+            } else {
+                unload(file);
+            }
+        }
+    }
+
+    private boolean isTemplate(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".md") || name.endsWith(".txt");
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null) {
+            return "prompt";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.aidemo.mcp.service;
+
+/**
+ * Published when the content behind a resource URI changed; subscribers are notified after the
+ * coalescing window (see {@link ResourceSubscriptions})
+ *
+ * @param uri URI of the changed resource
+ */
+public record ResourceChangedEvent(String uri) {
+}
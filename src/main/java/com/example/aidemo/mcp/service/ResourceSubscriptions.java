@@ -0,0 +1,160 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+import com.example.aidemo.mcp.model.MCPException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of resources/subscribe subscriptions with coalesced change delivery.
+ * Subscribers are kept per URI in concurrent sets and URIs per session under a per-session lock, so subscribing,
+ * lookups and cleanup of a closed session never lock the whole index. Transports open a session before its
+ * first request and remove it on close; a subscribe that races with the removal is refused instead of leaving
+ * entries behind that nothing would clean up. The first change of a URI schedules a flush after
+ * the coalescing window; further changes inside the window are absorbed, so each subscriber receives one
+ * {@code notifications/resources/updated} per burst.
+ */
+@Slf4j
+@Component
+public class ResourceSubscriptions {
+
+    public static final String UPDATED_METHOD = "notifications/resources/updated";
+
+    private final Map<String, Set<String>> subscribersByUri = new ConcurrentHashMap<>();
+    private final Map<String, SessionSubscriptions> urisBySession = new ConcurrentHashMap<>();
+    // URIs with a flush scheduled
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final TaskScheduler scheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration coalesceWindow;
+    private final int maxPerSession;
+
+    /**
+     * URIs one session subscribed to; guarded by its own monitor, and closed once the session is removed
+     */
+    private static final class SessionSubscriptions {
+        private final Set<String> uris = new HashSet<>();
+        private boolean closed;
+    }
+
+    public ResourceSubscriptions(@Qualifier("mcpScheduler") TaskScheduler scheduler,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MCPProperties properties) {
+        this.scheduler = scheduler;
+        this.eventPublisher = eventPublisher;
+        this.coalesceWindow = properties.getSubscriptions().getCoalesceWindow();
+        this.maxPerSession = properties.getSubscriptions().getMaxPerSession();
+    }
+
+    /**
+     * Start tracking a session; transports call this when the connection opens, before any request runs
+     */
+    public void openSession(String sessionId) {
+        urisBySession.putIfAbsent(sessionId, new SessionSubscriptions());
+    }
+
+    public void subscribe(String sessionId, String uri) {
+        SessionSubscriptions session = urisBySession.get(sessionId);
+        if (session == null) {
+            throw new MCPException(JsonRpcError.INVALID_PARAMS, "Session is closed");
+        }
+        // The limit check, the insert and the liveness check are atomic with removeSession
+        synchronized (session) {
+            if (session.closed) {
+                throw new MCPException(JsonRpcError.INVALID_PARAMS, "Session is closed");
+            }
+            if (!session.uris.contains(uri) && session.uris.size() >= maxPerSession) {
+                throw new MCPException(JsonRpcError.INVALID_PARAMS, "Too many subscriptions for this session");
+            }
+            session.uris.add(uri);
+            // Add inside compute so a concurrent removal of the URI's last subscriber cannot drop this one
+            subscribersByUri.compute(uri, (key, sessions) -> {
+                Set<String> next = sessions != null ? sessions : ConcurrentHashMap.<String>newKeySet();
+                next.add(sessionId);
+                return next;
+            });
+        }
+    }
+
+    public void unsubscribe(String sessionId, String uri) {
+        SessionSubscriptions session = urisBySession.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            if (session.uris.remove(uri)) {
+                removeSubscriber(uri, sessionId);
+            }
+        }
+    }
+
+    /**
+     * Drop every subscription of a closed session
+     */
+    public void removeSession(String sessionId) {
+        SessionSubscriptions session = urisBySession.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            session.closed = true;
+            session.uris.forEach(uri -> removeSubscriber(uri, sessionId));
+            session.uris.clear();
+        }
+    }
+
+    private void removeSubscriber(String uri, String sessionId) {
+        // Drop the URI's entry once its last subscriber is gone
+        subscribersByUri.computeIfPresent(uri, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public int subscriberCount(String uri) {
+        Set<String> sessions = subscribersByUri.get(uri);
+        return sessions != null ? sessions.size() : 0;
+    }
+
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        resourceUpdated(event.uri());
+    }
+
+    /**
+     * Signal that a resource's content changed; subscribers are notified once the coalescing window ends
+     */
+    public void resourceUpdated(String uri) {
+        if (!subscribersByUri.containsKey(uri) || !pending.add(uri)) {
+            return;
+        }
+        scheduler.schedule(() -> flush(uri), Instant.now().plus(coalesceWindow));
+    }
+
+    private void flush(String uri) {
+        // Changes from here on schedule a new flush, so none are lost
+        pending.remove(uri);
+        Set<String> sessions = subscribersByUri.get(uri);
+        if (sessions == null || sessions.isEmpty()) {
+            return;
+        }
+        log.debug("Resource {} updated, notifying {} subscribers", uri, sessions.size());
+        eventPublisher.publishEvent(new SessionNotificationEvent(
+                JsonRpcNotification.of(UPDATED_METHOD, Map.of("uri", uri)), List.copyOf(sessions)));
+    }
+}
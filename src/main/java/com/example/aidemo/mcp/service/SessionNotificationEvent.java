@@ -0,0 +1,14 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+
+import java.util.Collection;
+
+/**
+ * A notification addressed to specific sessions; each transport delivers it to the sessions it owns
+ *
+ * @param notification the notification to send
+ * @param sessionIds   target session ids
+ */
+public record SessionNotificationEvent(JsonRpcNotification notification, Collection<String> sessionIds) {
+}
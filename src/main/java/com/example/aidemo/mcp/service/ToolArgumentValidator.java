@@ -0,0 +1,275 @@
+package com.example.aidemo.mcp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A tool's {@code inputSchema} compiled into a tree of checks.
+ * The schema map is walked once when the tool is registered; validating a call then only runs the checks
+ * that apply, without looking keywords up again. Supported keywords are {@code type}, {@code properties},
+ * {@code required}, {@code additionalProperties}, {@code items}, {@code enum}, {@code const},
+ * {@code minimum}/{@code maximum}, {@code minLength}/{@code maxLength} and {@code pattern}; other keywords
+ * are ignored. Validation time is recorded in the {@code mcp.tools.validation} timer, tagged by tool and
+ * outcome; the registry removes those timers when the tool is unregistered.
+ */
+public final class ToolArgumentValidator {
+
+    @FunctionalInterface
+    private interface Check {
+        void check(Object value, String path, List<String> violations);
+    }
+
+    private static final Check NONE = (value, path, violations) -> {
+    };
+
+    private final Check root;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final MeterRegistry meterRegistry;
+
+    private ToolArgumentValidator(Check root, String toolName, MeterRegistry meterRegistry) {
+        this.root = root;
+        this.meterRegistry = meterRegistry;
+        this.validTimer = timer(toolName, "valid", meterRegistry);
+        this.invalidTimer = timer(toolName, "invalid", meterRegistry);
+    }
+
+    /**
+     * Compile a tool's schema, or return null when there is nothing to check
+     */
+    static ToolArgumentValidator compile(String toolName, Map<String, Object> schema, MeterRegistry meterRegistry) {
+        if (schema == null || schema.isEmpty()) {
+            return null;
+        }
+        return new ToolArgumentValidator(compileNode(schema), toolName, meterRegistry);
+    }
+
+    /**
+     * Validate call arguments; the result lists every violation and is empty for a valid call
+     */
+    public List<String> validate(Map<String, Object> arguments) {
+        long start = System.nanoTime();
+        List<String> violations = new ArrayList<>(0);
+        root.check(arguments != null ? arguments : Map.of(), "arguments", violations);
+        (violations.isEmpty() ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return violations;
+    }
+
+    /**
+     * Remove this tool's validation timers from the meter registry
+     */
+    void removeMeters() {
+        meterRegistry.remove(validTimer);
+        meterRegistry.remove(invalidTimer);
+    }
+
+    private static Timer timer(String toolName, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("mcp.tools.validation")
+                .description("Time spent validating tools/call arguments against the tool's input schema")
+                .tag("tool", toolName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Check compileNode(Object node) {
+        if (!(node instanceof Map<?, ?> schema)) {
+            return NONE;
+        }
+        List<Check> checks = new ArrayList<>();
+
+        Object type = schema.get("type");
+        if (type != null) {
+            checks.add(typeCheck(type));
+        }
+        if (schema.get("enum") instanceof Collection<?> allowed) {
+            Set<Object> values = new HashSet<>();
+            allowed.forEach(v -> values.add(normalize(v)));
+            checks.add((value, path, violations) -> {
+                if (!values.contains(normalize(value))) {
+                    violations.add(path + " must be one of " + allowed);
+                }
+            });
+        }
+        if (schema.containsKey("const")) {
+            Object expected = normalize(schema.get("const"));
+            checks.add((value, path, violations) -> {
+                if (!Objects.equals(expected, normalize(value))) {
+                    violations.add(path + " must be " + schema.get("const"));
+                }
+            });
+        }
+        addNumberChecks(schema, checks);
+        addStringChecks(schema, checks);
+        addObjectChecks(schema, checks);
+        if (schema.containsKey("items")) {
+            Check items = compileNode(schema.get("items"));
+            checks.add((value, path, violations) -> {
+                if (value instanceof List<?> list) {
+                    for (int i = 0; i < list.size(); i++) {
+                        items.check(list.get(i), path + "[" + i + "]", violations);
+                    }
+                }
+            });
+        }
+
+        return switch (checks.size()) {
+            case 0 -> NONE;
+            case 1 -> checks.get(0);
+            default -> {
+                Check[] all = checks.toArray(Check[]::new);
+                yield (value, path, violations) -> {
+                    for (Check check : all) {
+                        check.check(value, path, violations);
+                    }
+                };
+            }
+        };
+    }
+
+    private static Check typeCheck(Object type) {
+        List<String> types = type instanceof Collection<?> list
+                ? list.stream().map(String::valueOf).toList()
+                : List.of(String.valueOf(type));
+        return (value, path, violations) -> {
+            for (String t : types) {
+                if (hasType(value, t)) {
+                    return;
+                }
+            }
+            violations.add(path + " must be of type " + String.join(" or ", types));
+        };
+    }
+
+    private static boolean hasType(Object value, String type) {
+        return switch (type) {
+            case "object" -> value instanceof Map;
+            case "array" -> value instanceof List;
+            case "string" -> value instanceof String;
+            case "boolean" -> value instanceof Boolean;
+            case "number" -> value instanceof Number;
+            case "integer" -> isInteger(value);
+            case "null" -> value == null;
+            default -> true;
+        };
+    }
+
+    private static boolean isInteger(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return true;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().scale() <= 0;
+        }
+        return value instanceof Number number && number.doubleValue() == Math.rint(number.doubleValue())
+                && !Double.isInfinite(number.doubleValue());
+    }
+
+    private static void addNumberChecks(Map<?, ?> schema, List<Check> checks) {
+        if (schema.get("minimum") instanceof Number minimum) {
+            double min = minimum.doubleValue();
+            checks.add((value, path, violations) -> {
+                if (value instanceof Number number && number.doubleValue() < min) {
+                    violations.add(path + " must be >= " + minimum);
+                }
+            });
+        }
+        if (schema.get("maximum") instanceof Number maximum) {
+            double max = maximum.doubleValue();
+            checks.add((value, path, violations) -> {
+                if (value instanceof Number number && number.doubleValue() > max) {
+                    violations.add(path + " must be <= " + maximum);
+                }
+            });
+        }
+    }
+
+    private static void addStringChecks(Map<?, ?> schema, List<Check> checks) {
+        if (schema.get("minLength") instanceof Number minLength) {
+            int min = minLength.intValue();
+            checks.add((value, path, violations) -> {
+                if (value instanceof String s && s.codePointCount(0, s.length()) < min) {
+                    violations.add(path + " must be at least " + min + " characters");
+                }
+            });
+        }
+        if (schema.get("maxLength") instanceof Number maxLength) {
+            int max = maxLength.intValue();
+            checks.add((value, path, violations) -> {
+                if (value instanceof String s && s.codePointCount(0, s.length()) > max) {
+                    violations.add(path + " must be at most " + max + " characters");
+                }
+            });
+        }
+        if (schema.get("pattern") instanceof String regex) {
+            Pattern pattern = Pattern.compile(regex);
+            checks.add((value, path, violations) -> {
+                if (value instanceof String s && !pattern.matcher(s).find()) {
+                    violations.add(path + " must match " + regex);
+                }
+            });
+        }
+    }
+
+    private static void addObjectChecks(Map<?, ?> schema, List<Check> checks) {
+        Map<String, Check> properties = new LinkedHashMap<>();
+        if (schema.get("properties") instanceof Map<?, ?> declared) {
+            declared.forEach((name, propertySchema) -> properties.put(String.valueOf(name), compileNode(propertySchema)));
+        }
+        String[] required = schema.get("required") instanceof Collection<?> names
+                ? names.stream().map(String::valueOf).toArray(String[]::new)
+                : new String[0];
+        Object additional = schema.get("additionalProperties");
+        boolean closed = Boolean.FALSE.equals(additional);
+        Check additionalCheck = additional instanceof Map<?, ?> ? compileNode(additional) : null;
+
+        if (properties.isEmpty() && required.length == 0 && !closed && additionalCheck == null) {
+            return;
+        }
+        checks.add((value, path, violations) -> {
+            if (!(value instanceof Map<?, ?> object)) {
+                return;
+            }
+            // Present with a null value counts as present; the property's own checks then reject the null
+            for (String name : required) {
+                if (!object.containsKey(name)) {
+                    violations.add(path + "." + name + " is required");
+                }
+            }
+            for (Map.Entry<?, ?> entry : object.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                Check property = properties.get(name);
+                if (property != null) {
+                    property.check(entry.getValue(), path + "." + name, violations);
+                } else if (closed) {
+                    violations.add(path + "." + name + " is not allowed");
+                } else if (additionalCheck != null) {
+                    additionalCheck.check(entry.getValue(), path + "." + name, violations);
+                }
+            }
+        });
+    }
+
+    /**
+     * Numbers compare by value regardless of how they were decoded (1 equals 1.0)
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            return new BigDecimal(number.toString()).stripTrailingZeros();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.model.JsonRpcNotification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link ToolProgress} of a single tools/call.
+ * With a progress token and a notifier, progress becomes {@code notifications/progress} and content becomes
+ * {@code notifications/tools/content}, both sent as soon as the tool produces them and never buffered.
+ * Without them, content is kept for the final result. Once the call has answered, late reports from a tool
+ * that ignored its interruption are dropped.
+ */
+final class ToolCallReporter implements ToolProgress {
+
+    static final String PROGRESS_METHOD = "notifications/progress";
+    static final String CONTENT_METHOD = "notifications/tools/content";
+
+    private final Object progressToken;
+    private final Consumer<JsonRpcNotification> notifier;
+    private final List<Map<String, Object>> buffered = new ArrayList<>();
+    private boolean streamed;
+    private boolean closed;
+
+    ToolCallReporter(Object progressToken, Consumer<JsonRpcNotification> notifier) {
+        boolean streaming = progressToken != null && notifier != null;
+        this.progressToken = streaming ? progressToken : null;
+        this.notifier = streaming ? notifier : null;
+    }
+
+    @Override
+    public synchronized void progress(double progress, Double total, String message) {
+        if (closed || notifier == null) {
+            return;
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("progressToken", progressToken);
+        params.put("progress", progress);
+        if (total != null) {
+            params.put("total", total);
+        }
+        if (message != null) {
+            params.put("message", message);
+        }
+        notifier.accept(JsonRpcNotification.of(PROGRESS_METHOD, params));
+    }
+
+    @Override
+    public synchronized void content(String text) {
+        if (closed || text == null) {
+            return;
+        }
+        Map<String, Object> item = textContent(text);
+        if (notifier == null) {
+            buffered.add(item);
+            return;
+        }
+        streamed = true;
+        notifier.accept(JsonRpcNotification.of(CONTENT_METHOD, Map.of(
+                "progressToken", progressToken,
+                "content", List.of(item))));
+    }
+
+    /**
+     * Close the reporter and build the tools/call result from the collected content and the tool's return
+     * value. A tool that emitted nothing keeps the classic single text item, even for a null return.
+     */
+    synchronized Map<String, Object> result(Object returned) {
+        closed = true;
+        List<Map<String, Object>> content = new ArrayList<>(buffered);
+        if (returned != null || (content.isEmpty() && !streamed)) {
+            content.add(textContent(String.valueOf(returned)));
+        }
+        buffered.clear();
+        return Map.of("content", content);
+    }
+
+    synchronized void close() {
+        closed = true;
+        buffered.clear();
+    }
+
+    private static Map<String, Object> textContent(String text) {
+        return Map.of("type", "text", "text", text);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.JsonRpcError;
+import com.example.aidemo.mcp.model.MCPException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs tool calls inside per-tool bulkheads.
+ * Every tool gets its own small pool with a bounded queue, so a slow or runaway tool can only exhaust its
+ * own slots. {@link #submit} returns at once and enforces the deadline with a timer, so transport threads
+ * are not held while a tool runs; {@link #execute} waits at most the tool's deadline on the calling thread.
+ * Calls made on a session can be aborted with {@code notifications/cancelled}, which cancels the queued or
+ * running task and interrupts it. A bulkhead is shut down once its tool is unregistered; calls already
+ * accepted still run to completion. Looking a bulkhead up and handing it a task happen atomically with
+ * its removal, so a call never lands on a bulkhead that is being shut down.
+ */
+@Slf4j
+@Component
+public class ToolExecutor implements DisposableBean {
+
+    private record Bulkhead(ThreadPoolExecutor executor, Duration timeout) {
+    }
+
+    private final MCPProperties.ToolExecution settings;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    // Running calls by session and request id, for notifications/cancelled
+    private final Map<String, FutureTask<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MCPRegistry registry;
+
+    public ToolExecutor(MCPProperties properties, MCPRegistry registry) {
+        this.settings = properties.getToolExecution();
+        this.registry = registry;
+    }
+
+    /**
+     * Run a tool call in the tool's bulkhead and wait for its result until the tool's deadline
+     *
+     * @throws MCPException with {@link JsonRpcError#SERVER_BUSY} when the bulkhead is full,
+     *                      {@link JsonRpcError#REQUEST_TIMEOUT} when the deadline passes and
+     *                      {@link JsonRpcError#REQUEST_CANCELLED} when the client cancelled the call
+     */
+    public Object execute(String toolName, Callable<Object> call, MCPRequestContext context, Object requestId) throws Exception {
+        FutureTask<Object> task = new FutureTask<>(call);
+        String key = callKey(context, requestId);
+        if (key != null) {
+            inFlight.put(key, task);
+        }
+        Duration timeout = null;
+        try {
+            timeout = start(toolName, task);
+            return task.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw timedOut(toolName, timeout);
+        } catch (CancellationException e) {
+            throw new MCPException(JsonRpcError.REQUEST_CANCELLED, "Tool call cancelled");
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MCPException(JsonRpcError.REQUEST_CANCELLED, "Tool call interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            if (key != null) {
+                inFlight.remove(key, task);
+            }
+        }
+    }
+
+    /**
+     * Run a tool call in the tool's bulkhead without waiting for it. The returned future completes with the
+     * result, or with the same {@link MCPException}s as {@link #execute}; the deadline is a timer, not a
+     * waiting thread.
+     */
+    public CompletableFuture<Object> submit(String toolName, Callable<Object> call, MCPRequestContext context, Object requestId) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        String key = callKey(context, requestId);
+        FutureTask<Object> task = new FutureTask<>(call) {
+            @Override
+            protected void done() {
+                if (key != null) {
+                    inFlight.remove(key, this);
+                }
+                if (isCancelled()) {
+                    result.completeExceptionally(new MCPException(JsonRpcError.REQUEST_CANCELLED, "Tool call cancelled"));
+                    return;
+                }
+                try {
+                    result.complete(get());
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    // Not reached: the task is done, so get() returns at once
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        if (key != null) {
+            inFlight.put(key, task);
+        }
+        Duration timeout;
+        try {
+            timeout = start(toolName, task);
+        } catch (MCPException e) {
+            if (key != null) {
+                inFlight.remove(key, task);
+            }
+            return CompletableFuture.failedFuture(e);
+        }
+        return result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).exceptionally(error -> {
+            if (error instanceof TimeoutException) {
+                task.cancel(true);
+                throw timedOut(toolName, timeout);
+            }
+            throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+        });
+    }
+
+    /**
+     * Hand a task to the tool's bulkhead, creating it on first use
+     *
+     * @return the tool's deadline
+     * @throws MCPException with {@link JsonRpcError#SERVER_BUSY} when the bulkhead is full
+     */
+    private Duration start(String toolName, FutureTask<Object> task) {
+        try {
+            // Inside compute, so onCatalogChanged cannot shut the bulkhead down between the lookup and the hand-off
+            return bulkheads.compute(toolName, (name, current) -> {
+                Bulkhead bulkhead = current != null ? current : createBulkhead(name);
+                try {
+                    bulkhead.executor().execute(task);
+                } catch (RejectedExecutionException e) {
+                    if (current == null) {
+                        bulkhead.executor().shutdown();
+                    }
+                    throw e;
+                }
+                return bulkhead;
+            }).timeout();
+        } catch (RejectedExecutionException e) {
+            throw new MCPException(JsonRpcError.SERVER_BUSY, "Server busy: tool " + toolName + " is at capacity");
+        }
+    }
+
+    private static MCPException timedOut(String toolName, Duration timeout) {
+        return new MCPException(JsonRpcError.REQUEST_TIMEOUT, "Tool " + toolName + " timed out after " + timeout.toMillis() + " ms");
+    }
+
+    /**
+     * Release the bulkheads of tools that are no longer registered
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!"tools".equals(event.catalog())) {
+            return;
+        }
+        for (String toolName : bulkheads.keySet()) {
+            // The registry check and the removal are atomic with start() for the same tool
+            bulkheads.compute(toolName, (name, bulkhead) -> {
+                if (bulkhead == null || registry.getTool(name) != null) {
+                    return bulkhead;
+                }
+                bulkhead.executor().shutdown();
+                log.info("Removed bulkhead for unregistered tool {}", name);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Abort a call made on the given session; returns false if it already finished or is unknown
+     */
+    public boolean cancel(MCPRequestContext context, Object requestId) {
+        String key = callKey(context, requestId);
+        FutureTask<Object> task = key != null ? inFlight.get(key) : null;
+        return task != null && task.cancel(true);
+    }
+
+    /**
+     * Calls are only addressable within a session; JSON ids are compared by their text so 7 and 7L match
+     */
+    private static String callKey(MCPRequestContext context, Object requestId) {
+        if (context == null || context.sessionId() == null || requestId == null) {
+            return null;
+        }
+        return context.sessionId() + '\u0000' + requestId;
+    }
+
+    private Bulkhead createBulkhead(String toolName) {
+        MCPProperties.Bulkhead limits = settings.getTools().getOrDefault(toolName, settings.getDefaults());
+        int threads = Math.max(1, limits.getMaxConcurrency());
+        BlockingQueue<Runnable> queue = limits.getQueueDepth() > 0
+                ? new ArrayBlockingQueue<>(limits.getQueueDepth())
+                : new SynchronousQueue<>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                new CustomizableThreadFactory("mcp-tool-" + toolName + "-"), new ThreadPoolExecutor.AbortPolicy());
+        // Idle tools keep no threads around
+        executor.allowCoreThreadTimeOut(true);
+        log.info("Created bulkhead for tool {}: {} threads, queue {}, timeout {}", toolName, threads,
+                limits.getQueueDepth(), limits.getTimeout());
+        return new Bulkhead(executor, limits.getTimeout());
+    }
+
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor().shutdownNow());
+    }
+}
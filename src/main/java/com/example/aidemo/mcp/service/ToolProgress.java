@@ -0,0 +1,24 @@
+package com.example.aidemo.mcp.service;
+
+/**
+ * Lets a running tool report progress and hand over partial content before it returns.
+ * When the client asked for progress (a {@code _meta.progressToken} on tools/call) and the transport can
+ * push notifications, both are sent immediately; otherwise progress is dropped and content is collected
+ * into the final result, so tools behave the same on every transport.
+ */
+public interface ToolProgress {
+
+    /**
+     * Report how far the call has got
+     *
+     * @param progress amount of work done so far; must increase with every call
+     * @param total    total amount of work, or null if unknown
+     * @param message  optional human-readable status
+     */
+    void progress(double progress, Double total, String message);
+
+    /**
+     * Emit a piece of text content
+     */
+    void content(String text);
+}
@@ -0,0 +1,185 @@
+package com.example.aidemo.mcp.service;
+
+import com.example.aidemo.mcp.config.MCPProperties;
+import com.example.aidemo.mcp.model.PreEncodedResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Memoized results of one deterministic tool.
+ * Keys are the canonical JSON of the call arguments and values are the pre-encoded call results, so a hit
+ * skips both the tool and the response encoding. Entries are evicted least recently used first once the
+ * entry or byte budget is exceeded, and expire after the configured time to live. Concurrent misses on the
+ * same arguments share a single run of the tool.
+ */
+@Slf4j
+public class ToolResultCache {
+
+    /**
+     * Computes a result on a miss
+     */
+    @FunctionalInterface
+    public interface Loader {
+        PreEncodedResult load() throws Exception;
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes) {
+    }
+
+    private record Entry(PreEncodedResult result, long bytes, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    // Misses being computed, so concurrent callers with the same arguments wait instead of running the tool again
+    private final ConcurrentHashMap<String, CompletableFuture<PreEncodedResult>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ToolResultCache(MCPProperties.ToolCache settings) {
+        this.maxEntries = settings.getMaxEntries();
+        this.maxBytes = settings.getMaxBytes();
+        this.ttlNanos = settings.getTtl().toNanos();
+    }
+
+    /**
+     * Cached result for the canonical arguments, or null on a miss or an expired entry
+     */
+    public PreEncodedResult get(String key) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                hits.increment();
+                return entry.result();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                bytes -= entry.bytes();
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Cached result for the canonical arguments, loading and caching it on a miss. Only one caller runs the
+     * loader for a key at a time; the others wait for its result, and run the loader themselves if it fails
+     * (for example because the leading call was cancelled by its own client).
+     */
+    public PreEncodedResult get(String key, Loader loader) throws Exception {
+        PreEncodedResult cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        while (true) {
+            CompletableFuture<PreEncodedResult> load = new CompletableFuture<>();
+            CompletableFuture<PreEncodedResult> running = loading.putIfAbsent(key, load);
+            if (running == null) {
+                try {
+                    PreEncodedResult result = loader.load();
+                    put(key, result);
+                    load.complete(result);
+                    return result;
+                } catch (Throwable e) {
+                    load.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    loading.remove(key, load);
+                }
+            }
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                log.debug("Shared load of a cached tool result failed, retrying: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Non-blocking form of {@link #get(String, Loader)}: the loader starts the computation and returns its
+     * future, and callers that find a load already running chain onto it instead of waiting
+     */
+    public CompletableFuture<PreEncodedResult> getAsync(String key, Supplier<CompletableFuture<PreEncodedResult>> loader) {
+        PreEncodedResult cached = get(key);
+        return cached != null ? CompletableFuture.completedFuture(cached) : loadAsync(key, loader);
+    }
+
+    private CompletableFuture<PreEncodedResult> loadAsync(String key, Supplier<CompletableFuture<PreEncodedResult>> loader) {
+        CompletableFuture<PreEncodedResult> load = new CompletableFuture<>();
+        CompletableFuture<PreEncodedResult> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            return running
+                    .handle((result, error) -> error == null ? CompletableFuture.completedFuture(result) : loadAsync(key, loader))
+                    .thenCompose(Function.identity());
+        }
+        CompletableFuture<PreEncodedResult> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((result, error) -> {
+            if (error == null) {
+                put(key, result);
+            }
+            loading.remove(key, load);
+            if (error == null) {
+                load.complete(result);
+            } else {
+                load.completeExceptionally(error);
+            }
+        });
+        return load;
+    }
+
+    public void put(String key, PreEncodedResult result) {
+        // Strings are sized as UTF-16, matching what they occupy on the heap
+        long size = 2L * (key.length() + result.encodedLength());
+        if (size > maxBytes) {
+            return;
+        }
+        Entry entry = new Entry(result, size, System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.bytes();
+            }
+            bytes += size;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                bytes -= evicted.bytes();
+                evictions.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), bytes);
+        }
+    }
+}
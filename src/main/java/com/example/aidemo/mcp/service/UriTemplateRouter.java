@@ -0,0 +1,118 @@
+package com.example.aidemo.mcp.service;
+
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable segment trie that resolves concrete URIs against URI templates such as
+ * {@code resource://db/{table}/{id}}.
+ * Templates are split on {@code /}; each segment is either literal text or a single {@code {variable}}.
+ * Resolving walks the trie one segment at a time, preferring literal children over variables and
+ * backtracking when a branch dead-ends, so the cost depends on the URI's depth rather than on the number
+ * of templates.
+ */
+final class UriTemplateRouter<T> {
+
+    record Match<T>(T value, Map<String, String> variables) {
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> variable;
+        private T value;
+        private String[] variableNames;
+    }
+
+    private final Node<T> root;
+
+    private UriTemplateRouter(Node<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile a router from templates in registration order; a later template with the same shape replaces
+     * an earlier one
+     */
+    static <T> UriTemplateRouter<T> compile(Map<String, T> templates) {
+        Node<T> root = new Node<>();
+        templates.forEach((template, value) -> insert(root, template, value));
+        return new UriTemplateRouter<>(root);
+    }
+
+    /**
+     * Check that a template uses only whole-segment variables
+     */
+    static void validate(String template) {
+        for (String segment : template.split("/", -1)) {
+            if (variableName(segment) == null && (segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0)) {
+                throw new IllegalArgumentException("Unsupported URI template segment '" + segment + "' in " + template
+                        + "; variables must span a whole path segment");
+            }
+        }
+    }
+
+    Match<T> resolve(String uri) {
+        String[] segments = uri.split("/", -1);
+        String[] values = new String[segments.length];
+        return resolve(root, segments, 0, values, 0);
+    }
+
+    private static <T> Match<T> resolve(Node<T> node, String[] segments, int index, String[] values, int bound) {
+        if (index == segments.length) {
+            if (node.value == null) {
+                return null;
+            }
+            Map<String, String> variables = new LinkedHashMap<>();
+            for (int i = 0; i < bound; i++) {
+                variables.put(node.variableNames[i], UriUtils.decode(values[i], StandardCharsets.UTF_8));
+            }
+            return new Match<>(node.value, variables);
+        }
+        String segment = segments[index];
+        Node<T> literal = node.literals.get(segment);
+        if (literal != null) {
+            Match<T> match = resolve(literal, segments, index + 1, values, bound);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (node.variable != null && !segment.isEmpty()) {
+            values[bound] = segment;
+            return resolve(node.variable, segments, index + 1, values, bound + 1);
+        }
+        return null;
+    }
+
+    private static <T> void insert(Node<T> root, String template, T value) {
+        Node<T> node = root;
+        List<String> names = new ArrayList<>();
+        for (String segment : template.split("/", -1)) {
+            String name = variableName(segment);
+            if (name != null) {
+                names.add(name);
+                if (node.variable == null) {
+                    node.variable = new Node<>();
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+        node.value = value;
+        node.variableNames = names.toArray(String[]::new);
+    }
+
+    private static String variableName(String segment) {
+        if (segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('{', 1) < 0) {
+            return segment.substring(1, segment.length() - 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.aidemo.memory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 聊天记忆配置（前缀 {@code chat-memory}）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat-memory")
+public class ChatMemoryProperties {
+
+    /**
+     * 默认带入提示词的历史记录token预算
+     */
+    private int tokenBudget = 2048;
+    /**
+     * 单次请求可指定的最大token预算，根据模型上下文窗口调整
+     */
+    private int maxTokenBudget = 8192;
+    /**
+     * 每个会话最多保存的消息条数，超出后丢弃最早的消息
+     */
+    private int maxStoredMessages = 200;
+}
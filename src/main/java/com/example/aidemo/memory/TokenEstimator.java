@@ -0,0 +1,51 @@
+package com.example.aidemo.memory;
+
+/**
+ * 本地token数估算
+ * 不调用模型的分词器，单次遍历：中日韩字符和标点各算一个token，连续的字母数字按每4个字符一个token计，
+ * 空白不计；每条消息另加角色标记等固定开销。用于控制历史记录大小已足够准确。
+ */
+public final class TokenEstimator {
+
+    /**
+     * 每条消息的固定开销（角色、分隔符等）
+     */
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    // 该码点之前的字母数字按单词处理，之后（中日韩等）逐字计数
+    private static final char CJK_START = '\u2E80';
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 估算一段文本的token数
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < CJK_START && Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    /**
+     * 估算一条消息在提示词中占用的token数
+     */
+    public static int estimateMessage(String text) {
+        return estimate(text) + MESSAGE_OVERHEAD;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.aidemo.memory;
+
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按token预算取历史记录的聊天记忆
+ * 消息保存时估算一次token数并与消息一起缓存；{@link #get(String, int)} 从最新的消息往前选取，直到超出预算为止，
+ * 这样带入提示词的长度可控，Ollama 的提示词处理时间也更稳定。替代默认的按条数截取的 MessageWindowChatMemory。
+ * 预算只由 TokenBudgetChatMemoryAdvisor 在组装提示词时使用，{@link #get(String)} 返回保存的全部消息。
+ */
+@Component
+public class TokenWindowChatMemory implements ChatMemory {
+
+    private record Entry(Message message, int tokens) {
+    }
+
+    private final ChatMemoryProperties properties;
+    private final Map<String, Deque<Entry>> conversations = new ConcurrentHashMap<>();
+
+    public TokenWindowChatMemory(ChatMemoryProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // 在锁外估算token数
+        List<Entry> entries = messages.stream()
+                .map(message -> new Entry(message, TokenEstimator.estimateMessage(message.getText())))
+                .toList();
+        Deque<Entry> conversation = conversations.computeIfAbsent(conversationId, key -> new ArrayDeque<>());
+        synchronized (conversation) {
+            conversation.addAll(entries);
+            while (conversation.size() > properties.getMaxStoredMessages()) {
+                conversation.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * 获取保存的全部消息（最多 chat-memory.max-stored-messages 条），不受token预算限制
+     */
+    @Override
+    public List<Message> get(String conversationId) {
+        Deque<Entry> conversation = conversations.get(conversationId);
+        if (conversation == null) {
+            return List.of();
+        }
+        synchronized (conversation) {
+            return conversation.stream().map(Entry::message).toList();
+        }
+    }
+
+    /**
+     * 获取不超过token预算的最近消息，按时间顺序返回
+     */
+    public List<Message> get(String conversationId, int tokenBudget) {
+        Deque<Entry> conversation = conversations.get(conversationId);
+        if (conversation == null) {
+            return List.of();
+        }
+        List<Message> selected = new ArrayList<>();
+        synchronized (conversation) {
+            int used = 0;
+            for (Iterator<Entry> newestFirst = conversation.descendingIterator(); newestFirst.hasNext(); ) {
+                Entry entry = newestFirst.next();
+                if (used + entry.tokens() > tokenBudget) {
+                    break;
+                }
+                used += entry.tokens();
+                selected.add(entry.message());
+            }
+        }
+        Collections.reverse(selected);
+        return selected;
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        conversations.remove(conversationId);
+    }
+}
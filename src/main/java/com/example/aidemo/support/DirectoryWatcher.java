@@ -0,0 +1,88 @@
+package com.example.aidemo.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Watches a directory on a daemon thread and reports the files that were created, changed or deleted.
+ * Events arriving close together are coalesced, so the listener sees each changed file once per burst.
+ */
+@Slf4j
+public final class DirectoryWatcher implements Closeable {
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Consumer<Set<Path>> listener;
+    private final Thread thread;
+
+    private DirectoryWatcher(Path directory, WatchService watchService, Consumer<Set<Path>> listener, String threadName) {
+        this.directory = directory;
+        this.watchService = watchService;
+        this.listener = listener;
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching {@code directory}; {@code listener} receives the absolute paths of the changed files.
+     */
+    public static DirectoryWatcher start(Path directory, String threadName, Consumer<Set<Path>> listener) throws IOException {
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        DirectoryWatcher watcher = new DirectoryWatcher(directory, watchService, listener, threadName);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // Editors often write a file in several steps; let them finish and report each file once
+                Thread.sleep(100);
+                Set<Path> changed = new HashSet<>();
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name) {
+                            changed.add(directory.resolve(name));
+                        }
+                    }
+                    key.reset();
+                } while ((key = watchService.poll()) != null);
+
+                if (!changed.isEmpty()) {
+                    try {
+                        listener.accept(changed);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to handle changes in {}", directory, e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", directory);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+}
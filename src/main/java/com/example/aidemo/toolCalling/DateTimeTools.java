@@ -2,10 +2,12 @@ package com.example.aidemo.toolCalling;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+@Component
 public class DateTimeTools {
 
     @Tool(description = "获取用户时区中的当前日期和时间")
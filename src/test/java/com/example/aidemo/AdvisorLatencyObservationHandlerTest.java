@@ -0,0 +1,74 @@
+package com.example.aidemo;
+
+import com.example.aidemo.advisor.AdvisorLatencyObservationHandler;
+import com.example.aidemo.advisor.ThinkRemovalAdvisor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the per-advisor latency breakdown
+ */
+public class AdvisorLatencyObservationHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    private final ChatModel chatModel = new ChatModel() {
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return response("<think>x</think>answer");
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.just(response("<think>x</think>"), response("ans"), response("wer"));
+        }
+    };
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private ChatClient chatClient() {
+        observationRegistry.observationConfig().observationHandler(new AdvisorLatencyObservationHandler(meterRegistry));
+        return ChatClient.builder(chatModel, observationRegistry, null)
+                .defaultAdvisors(new ThinkRemovalAdvisor())
+                .build();
+    }
+
+    private long selfTimeCount(String advisor) throws InterruptedException {
+        // Stream spans stop in doFinally, which may run just after the subscriber sees completion
+        for (int i = 0; i < 100 && meterRegistry.find("ai.advisor.self").tag("advisor", advisor).timer() == null; i++) {
+            Thread.sleep(20);
+        }
+        return meterRegistry.get("ai.advisor.self").tag("advisor", advisor).timer().count();
+    }
+
+    @Test
+    public void testCallRecordsEveryAdvisor() throws InterruptedException {
+        assertEquals("answer", chatClient().prompt("hi").call().content());
+        assertEquals(1, selfTimeCount("ThinkRemovalAdvisor"));
+        assertEquals(1, selfTimeCount("call"));
+    }
+
+    @Test
+    public void testStreamRecordsEveryAdvisor() throws InterruptedException {
+        String content = chatClient().prompt("hi").stream().content().collect(Collectors.joining()).block();
+        assertEquals("answer", content);
+        assertEquals(1, selfTimeCount("ThinkRemovalAdvisor"));
+        assertEquals(1, selfTimeCount("stream"));
+    }
+}
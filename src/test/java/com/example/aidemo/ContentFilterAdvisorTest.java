@@ -0,0 +1,154 @@
+package com.example.aidemo;
+
+import com.example.aidemo.advisor.AhoCorasickMatcher;
+import com.example.aidemo.advisor.ContentFilterAdvisor;
+import com.example.aidemo.advisor.ContentFilterProperties;
+import com.example.aidemo.advisor.SensitiveWordDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Aho-Corasick content filter
+ */
+public class ContentFilterAdvisorTest {
+
+    private static ChatClientResponse chunk(String text) {
+        return ChatClientResponse.builder()
+                .chatResponse(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))))
+                .build();
+    }
+
+    private static String text(ChatClientResponse response) {
+        return response.chatResponse().getResult().getOutput().getText();
+    }
+
+    private static ContentFilterAdvisor advisor(ContentFilterProperties.Action action, String... words) {
+        ContentFilterProperties properties = new ContentFilterProperties();
+        properties.setWords(List.of(words));
+        properties.setAction(action);
+        SensitiveWordDictionary dictionary = new SensitiveWordDictionary(properties);
+        dictionary.afterPropertiesSet();
+        return new ContentFilterAdvisor(dictionary, properties);
+    }
+
+    private static StreamAdvisorChain chain(Flux<ChatClientResponse> responses, AtomicInteger calls) {
+        return new StreamAdvisorChain() {
+            @Override
+            public Flux<ChatClientResponse> nextStream(ChatClientRequest chatClientRequest) {
+                calls.incrementAndGet();
+                return responses;
+            }
+
+            @Override
+            public List<StreamAdvisor> getStreamAdvisors() {
+                return List.of();
+            }
+        };
+    }
+
+    private static ChatClientRequest request(String userText) {
+        return ChatClientRequest.builder().prompt(new Prompt(userText)).build();
+    }
+
+    @Test
+    public void testMatcher() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "hers", "暴力", " "));
+        assertEquals(4, matcher.size());
+        assertTrue(matcher.containsAny("uSHErs"));
+        assertFalse(matcher.containsAny("hxs"));
+        assertEquals("u*****", matcher.redact("uSHErs", '*'));
+        assertEquals("不要**行为", matcher.redact("不要暴力行为", '*'));
+        assertFalse(AhoCorasickMatcher.empty().containsAny("anything"));
+    }
+
+    @Test
+    public void testScannerMatchesAcrossChunks() {
+        AhoCorasickMatcher.Scanner scanner = AhoCorasickMatcher.compile(List.of("远光软件")).scanner('#');
+        assertEquals("我们是", scanner.accept("我们是远"));
+        assertEquals("", scanner.accept("光"));
+        assertEquals("####公司", scanner.accept("软件公司"));
+        assertEquals("", scanner.flush());
+        assertTrue(scanner.matched());
+    }
+
+    @Test
+    public void testStreamRedaction() {
+        Flux<ChatClientResponse> responses = Flux.just(chunk("这是暴"), chunk("力内容，远"));
+        String content = advisor(ContentFilterProperties.Action.REDACT, "暴力")
+                .adviseStream(request("你好"), chain(responses, new AtomicInteger()))
+                .map(ContentFilterAdvisorTest::text)
+                .collect(Collectors.joining())
+                .block();
+        assertEquals("这是**内容，远", content);
+    }
+
+    @Test
+    public void testStreamBlocking() {
+        ContentFilterAdvisor advisor = advisor(ContentFilterProperties.Action.BLOCK, "远光");
+        List<String> chunks = advisor.adviseStream(request("你好"), chain(Flux.just(chunk("你好，远"), chunk("光"), chunk("后续")), new AtomicInteger()))
+                .map(ContentFilterAdvisorTest::text)
+                .collectList()
+                .block();
+        assertEquals(List.of("你好，", "抱歉包含非法内容"), chunks);
+
+        // A matching user input never reaches the model
+        AtomicInteger calls = new AtomicInteger();
+        List<String> blocked = advisor.adviseStream(request("介绍一下远光"), chain(Flux.just(chunk("x")), calls))
+                .map(ContentFilterAdvisorTest::text)
+                .collectList()
+                .block();
+        assertEquals(List.of("抱歉包含非法内容"), blocked);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testBlockedInputKeepsNullContextValues() {
+        Map<String, Object> context = new HashMap<>();
+        context.put("trace", null);
+        ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt("介绍一下远光")).context(context).build();
+        ChatClientResponse response = advisor(ContentFilterProperties.Action.BLOCK, "远光")
+                .adviseStream(request, chain(Flux.just(chunk("x")), new AtomicInteger()))
+                .blockLast();
+        assertEquals("抱歉包含非法内容", text(response));
+        assertTrue(response.context().containsKey("trace"));
+    }
+
+    @Test
+    public void testDictionaryHotReload(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("words.txt");
+        Files.writeString(file, "# comment\nalpha\n");
+        ContentFilterProperties properties = new ContentFilterProperties();
+        properties.setDictionary(file.toString());
+        SensitiveWordDictionary dictionary = new SensitiveWordDictionary(properties);
+        dictionary.afterPropertiesSet();
+        try {
+            assertEquals(1, dictionary.matcher().size());
+            Files.writeString(file, "alpha\nbeta\n");
+            for (int i = 0; i < 100 && dictionary.matcher().size() != 2; i++) {
+                Thread.sleep(50);
+            }
+            assertTrue(dictionary.matcher().containsAny("BETA"));
+        } finally {
+            dictionary.destroy();
+        }
+    }
+}
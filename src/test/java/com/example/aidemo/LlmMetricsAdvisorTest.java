@@ -0,0 +1,81 @@
+package com.example.aidemo;
+
+import com.example.aidemo.advisor.LlmMetricsAdvisor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the streaming LLM metrics advisor
+ */
+public class LlmMetricsAdvisorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LlmMetricsAdvisor advisor = new LlmMetricsAdvisor(registry);
+    private final ChatClientRequest request = ChatClientRequest.builder()
+            .prompt(new Prompt("hi"))
+            .context(Map.of(LlmMetricsAdvisor.ENDPOINT, "stream"))
+            .build();
+
+    private static ChatClientResponse chunk(String text, DefaultUsage usage) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder().model("qwen3");
+        if (usage != null) {
+            metadata.usage(usage);
+        }
+        return ChatClientResponse.builder()
+                .chatResponse(new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build()))
+                .build();
+    }
+
+    private static StreamAdvisorChain chain(Flux<ChatClientResponse> responses) {
+        return new StreamAdvisorChain() {
+            @Override
+            public Flux<ChatClientResponse> nextStream(ChatClientRequest chatClientRequest) {
+                return responses;
+            }
+
+            @Override
+            public List<StreamAdvisor> getStreamAdvisors() {
+                return List.of();
+            }
+        };
+    }
+
+    @Test
+    public void testStreamTimingsAndUsage() {
+        Flux<ChatClientResponse> responses = Flux.just(chunk("a", null), chunk("b", null), chunk("c", null),
+                chunk("", new DefaultUsage(7, 3)));
+        advisor.adviseStream(request, chain(responses)).blockLast();
+
+        assertEquals(1, registry.get("llm.time.to.first.token").tags("model", "qwen3", "endpoint", "stream").timer().count());
+        assertEquals(2, registry.get("llm.inter.token.latency").timer().count());
+        assertEquals(7, registry.get("llm.tokens.prompt").summary().totalAmount());
+        assertEquals(3, registry.get("llm.tokens.completion").summary().totalAmount());
+        assertEquals(1, registry.get("llm.requests").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    public void testCancelledStream() {
+        Flux<ChatClientResponse> responses = Flux.interval(Duration.ofMillis(10)).map(i -> chunk("x", null));
+        advisor.adviseStream(request, chain(responses)).take(2).blockLast();
+
+        assertEquals(1, registry.get("llm.requests").tag("outcome", "cancelled").timer().count());
+        assertEquals(0, registry.find("llm.tokens.completion").summaries().size());
+    }
+}
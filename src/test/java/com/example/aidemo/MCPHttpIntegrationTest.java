@@ -0,0 +1,96 @@
+package com.example.aidemo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the MCP HTTP endpoint
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MCPHttpIntegrationTest {
+
+    private static final String LIST_TOOLS = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> post(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mcp"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testListEtagRevalidation() throws Exception {
+        HttpResponse<String> first = post(LIST_TOOLS);
+        assertEquals(200, first.statusCode());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertTrue(objectMapper.readTree(first.body()).get("result").has("tools"));
+        String version = etag.substring(1, etag.length() - 1);
+
+        // The GET listing carries the same tag as the JSON-RPC result
+        HttpResponse<String> listing = get("/mcp/tools/list", null);
+        assertEquals(200, listing.statusCode());
+        assertEquals(etag, listing.headers().firstValue("ETag").orElseThrow());
+        assertTrue(objectMapper.readTree(listing.body()).has("tools"));
+
+        // A matching tag anywhere in the list, weak or not, or a wildcard is not modified
+        HttpResponse<String> notModified = get("/mcp/tools/list", "\"other\", W/" + etag);
+        assertEquals(304, notModified.statusCode());
+        assertTrue(notModified.body().isEmpty());
+        assertEquals(304, get("/mcp/tools/list", "*").statusCode());
+        // A tag that merely contains the current one does not match
+        assertEquals(200, get("/mcp/tools/list", "\"x" + version + "x\"").statusCode());
+        assertEquals(200, get("/mcp/resources/templates/list", etag).statusCode());
+
+        // Requests with params are dispatched normally and carry no tag
+        HttpResponse<String> paged = post("{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":2,\"params\":{}}");
+        assertEquals(200, paged.statusCode());
+        assertTrue(paged.headers().firstValue("ETag").isEmpty());
+    }
+
+    @Test
+    public void testSnapshotListingsAreMeasured() throws Exception {
+        long before = listToolsCount();
+        assertEquals(200, post(LIST_TOOLS).statusCode());
+        assertEquals(304, get("/mcp/tools/list", "*").statusCode());
+        assertEquals(before + 2, listToolsCount());
+    }
+
+    private long listToolsCount() {
+        Timer timer = meterRegistry.find("mcp.requests")
+                .tags("method", "tools/list", "tool", "none", "transport", "http", "outcome", "success")
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
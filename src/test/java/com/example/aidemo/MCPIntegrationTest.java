@@ -1,13 +1,57 @@
 package com.example.aidemo;
 
+import com.example.aidemo.mcp.model.CallToolParams;
+import com.example.aidemo.mcp.model.JsonRpcError;
 import com.example.aidemo.mcp.model.JsonRpcRequest;
 import com.example.aidemo.mcp.model.JsonRpcResponse;
+import com.example.aidemo.mcp.model.MCPException;
+import com.example.aidemo.mcp.model.MCPResource;
+import com.example.aidemo.mcp.model.MCPResourceTemplate;
+import com.example.aidemo.mcp.model.MCPTool;
+import com.example.aidemo.mcp.model.PreEncodedResult;
+import com.example.aidemo.mcp.model.ResourceChunk;
+import com.example.aidemo.mcp.service.MCPBatchService;
+import com.example.aidemo.mcp.service.MCPRegistry;
+import com.example.aidemo.mcp.service.MCPRequestContext;
+import com.example.aidemo.mcp.config.MCPProperties;
 import com.example.aidemo.mcp.service.MCPService;
+import com.example.aidemo.mcp.service.MCPToolHandler;
+import com.example.aidemo.mcp.service.ToolProgress;
+import com.example.aidemo.mcp.service.MappedFileResourceReader;
+import com.example.aidemo.mcp.service.PromptTemplateLoader;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.example.aidemo.mcp.service.ToolResultCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +64,24 @@ public class MCPIntegrationTest {
     @Autowired
     private MCPService mcpService;
 
+    @Autowired
+    private MCPBatchService mcpBatchService;
+
+    @Autowired
+    private MCPRegistry mcpRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourcePatternResolver resourcePatternResolver;
+
+    @Autowired
+    private MCPProperties mcpProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void testInitialize() {
         JsonRpcRequest request = new JsonRpcRequest();
@@ -52,6 +114,62 @@ public class MCPIntegrationTest {
         assertTrue(result.containsKey("tools"));
     }
 
+    @Test
+    public void testListToolsSerializesPreEncodedResult() throws Exception {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/list");
+        request.setId(10);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(mcpService.handleRequest(request)));
+
+        assertEquals(10, json.get("id").asInt());
+        assertTrue(json.get("result").get("tools").isArray());
+        assertFalse(json.get("result").get("tools").isEmpty());
+    }
+
+    @Test
+    public void testListToolsVersionCheck() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/list");
+        request.setId(9);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> meta = (Map<String, Object>) ((Map<String, Object>) mcpService.handleRequest(request).getResult()).get("_meta");
+        request.setParams(Map.of("ifVersion", meta.get("version")));
+
+        JsonRpcResponse response = mcpService.handleRequest(request);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) response.getResult();
+        assertFalse(result.containsKey("tools"));
+        assertEquals(Map.of("version", meta.get("version"), "notModified", true), result.get("_meta"));
+    }
+
+    @Test
+    public void testRegisterToolAtRuntime() {
+        JsonRpcRequest list = new JsonRpcRequest();
+        list.setMethod("tools/list");
+        list.setId(11);
+        String before = mcpService.getCatalogSnapshot("tools/list").version();
+
+        mcpRegistry.registerTool(MCPTool.builder().name("echo").description("Echo the input").build(),
+                arguments -> arguments.get("text"));
+        try {
+            JsonRpcRequest call = new JsonRpcRequest();
+            call.setMethod("tools/call");
+            call.setParams(Map.of("name", "echo", "arguments", Map.of("text", "hi")));
+            call.setId(12);
+
+            JsonRpcResponse response = mcpService.handleRequest(call);
+
+            assertNull(response.getError());
+            assertNotEquals(before, mcpService.getCatalogSnapshot("tools/list").version());
+        } finally {
+            mcpRegistry.unregisterTool("echo");
+        }
+        assertEquals(before, mcpService.getCatalogSnapshot("tools/list").version());
+    }
+
     @Test
     public void testCallCalculatorTool() {
         JsonRpcRequest request = new JsonRpcRequest();
@@ -77,6 +195,19 @@ public class MCPIntegrationTest {
         assertTrue(result.containsKey("content"));
     }
 
+    @Test
+    public void testCallAnnotatedTool() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/call");
+        request.setParams(Map.of("name", "getCurrentDateTime", "arguments", Map.of()));
+        request.setId(13);
+
+        JsonRpcResponse response = mcpService.handleRequest(request);
+
+        assertNull(response.getError());
+        assertNotNull(mcpRegistry.getTool("getCurrentDateTime").definition().getInputSchema());
+    }
+
     @Test
     public void testListResources() {
         JsonRpcRequest request = new JsonRpcRequest();
@@ -165,4 +296,612 @@ public class MCPIntegrationTest {
         assertNotNull(response.getError());
         assertEquals(-32603, response.getError().getCode());
     }
+
+    @Test
+    public void testBatchPreservesOrder() {
+        List<JsonRpcRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            JsonRpcRequest request = new JsonRpcRequest();
+            request.setMethod(i % 2 == 0 ? "tools/list" : "invalid/method");
+            request.setId(i);
+            requests.add(request);
+        }
+
+        List<JsonRpcResponse> responses = mcpBatchService.handleBatch(requests);
+
+        assertEquals(20, responses.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, responses.get(i).getId());
+            assertEquals(i % 2 != 0, responses.get(i).getError() != null);
+        }
+    }
+
+    @Test
+    public void testBatchSlowItemFailsAlone() {
+        // One worker: the fast items wait in the queue longer than the item timeout, which must not count
+        List<JsonRpcResponse> responses = runSingleWorkerBatch(Duration.ofMillis(300), Duration.ofSeconds(10),
+                List.of("slow_batch_tool", "tools/list", "tools/list", "tools/list"));
+
+        assertEquals(4, responses.size());
+        assertEquals(0, responses.get(0).getId());
+        assertEquals(JsonRpcError.REQUEST_TIMEOUT, responses.get(0).getError().getCode());
+        for (int i = 1; i < 4; i++) {
+            assertEquals(i, responses.get(i).getId());
+            assertNull(responses.get(i).getError());
+        }
+    }
+
+    @Test
+    public void testBatchDeadlineBoundsAllItems() {
+        long start = System.nanoTime();
+        List<JsonRpcResponse> responses = runSingleWorkerBatch(Duration.ofSeconds(5), Duration.ofMillis(300),
+                List.of("slow_batch_tool", "slow_batch_tool"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(3)) < 0);
+        assertEquals(2, responses.size());
+        for (JsonRpcResponse response : responses) {
+            assertEquals(JsonRpcError.REQUEST_TIMEOUT, response.getError().getCode());
+        }
+    }
+
+    /**
+     * Run a batch on a dedicated single-worker executor; "slow_batch_tool" entries call a tool that sleeps
+     */
+    private List<JsonRpcResponse> runSingleWorkerBatch(Duration itemTimeout, Duration batchTimeout, List<String> methods) {
+        MCPProperties properties = new MCPProperties();
+        properties.getBatch().setItemTimeout(itemTimeout);
+        properties.getBatch().setBatchTimeout(batchTimeout);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        mcpRegistry.registerTool(MCPTool.builder().name("slow_batch_tool").build(), arguments -> {
+            Thread.sleep(10_000);
+            return "late";
+        });
+        try {
+            List<JsonRpcRequest> requests = new ArrayList<>();
+            for (String method : methods) {
+                JsonRpcRequest request = new JsonRpcRequest();
+                request.setId(requests.size());
+                if (method.equals("slow_batch_tool")) {
+                    request.setMethod("tools/call");
+                    request.setParams(Map.of("name", method));
+                } else {
+                    request.setMethod(method);
+                }
+                requests.add(request);
+            }
+            return new MCPBatchService(mcpService, executor, properties, objectMapper).handleBatch(requests);
+        } finally {
+            executor.shutdown();
+            mcpRegistry.unregisterTool("slow_batch_tool");
+        }
+    }
+
+    @Test
+    public void testStreamingBatch() throws Exception {
+        String body = "[{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1},"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"prompts/list\",\"id\":2}]";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        mcpBatchService.handleStreamingBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.contains("\"result\""));
+        }
+    }
+
+    @Test
+    public void testTypedParamsDecoding() throws Exception {
+        // params before method: buffered, then decoded once the method is known
+        String json = "{\"jsonrpc\":\"2.0\",\"params\":{\"name\":\"calculator\","
+                + "\"arguments\":{\"operation\":\"add\",\"a\":2,\"b\":3}},\"method\":\"tools/call\",\"id\":9}";
+
+        JsonRpcRequest request = objectMapper.readValue(json, JsonRpcRequest.class);
+
+        CallToolParams params = assertInstanceOf(CallToolParams.class, request.getParams());
+        assertEquals("calculator", params.name());
+        assertEquals(2, params.arguments().get("a"));
+        assertNull(mcpService.handleRequest(request).getError());
+    }
+
+    @Test
+    public void testWrongShapedParamsKeepTheRequestId() throws Exception {
+        // An array where tools/call expects an object, buffered because it precedes the method
+        JsonRpcRequest array = objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"params\":[1,2],\"method\":\"tools/call\",\"id\":11}", JsonRpcRequest.class);
+        // A nested mismatch decoded in the same pass; the id after it must still be read
+        JsonRpcRequest nested = objectMapper.readValue("{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\","
+                + "\"params\":{\"name\":\"calculator\",\"arguments\":\"a=1\",\"_meta\":{}},\"id\":12}", JsonRpcRequest.class);
+
+        for (JsonRpcRequest request : List.of(array, nested)) {
+            assertEquals("tools/call", request.getMethod());
+            JsonRpcResponse response = mcpService.handleRequest(request);
+            assertEquals(request.getId(), response.getId());
+            assertEquals(JsonRpcError.INVALID_PARAMS, response.getError().getCode());
+        }
+        assertEquals(12, nested.getId());
+    }
+
+    @Test
+    public void testToolResultCache() throws Exception {
+        // Same arguments in a different order share one cache entry
+        JsonRpcRequest first = objectMapper.readValue("{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":1,"
+                + "\"params\":{\"name\":\"calculator\",\"arguments\":{\"operation\":\"add\",\"a\":40,\"b\":2}}}", JsonRpcRequest.class);
+        JsonRpcRequest second = objectMapper.readValue("{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":2,"
+                + "\"params\":{\"name\":\"calculator\",\"arguments\":{\"b\":2,\"a\":40,\"operation\":\"add\"}}}", JsonRpcRequest.class);
+        ToolResultCache.Stats before = mcpService.getToolCacheStats().get("calculator");
+
+        JsonRpcResponse computed = mcpService.handleRequest(first);
+        JsonRpcResponse cached = mcpService.handleRequest(second);
+
+        ToolResultCache.Stats after = mcpService.getToolCacheStats().get("calculator");
+        assertEquals(objectMapper.writeValueAsString(computed.getResult()), objectMapper.writeValueAsString(cached.getResult()));
+        assertTrue(objectMapper.writeValueAsString(cached.getResult()).contains("Result: 42.00"));
+        assertEquals(before.hits() + 1, after.hits());
+        assertFalse(mcpService.getToolCacheStats().containsKey("get_current_time"));
+    }
+
+    @Test
+    public void testConcurrentCacheMissesRunToolOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        mcpRegistry.registerTool(MCPTool.builder().name("slow_cached_tool").build(), arguments -> {
+            runs.incrementAndGet();
+            Thread.sleep(300);
+            return "computed";
+        }, new MCPProperties.ToolCache());
+        try {
+            List<CompletableFuture<JsonRpcResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                JsonRpcRequest request = new JsonRpcRequest();
+                request.setMethod("tools/call");
+                request.setParams(Map.of("name", "slow_cached_tool", "arguments", Map.of("n", 1)));
+                request.setId(i);
+                calls.add(CompletableFuture.supplyAsync(() -> mcpService.handleRequest(request)));
+            }
+            for (CompletableFuture<JsonRpcResponse> call : calls) {
+                assertNull(call.get().getError());
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            mcpRegistry.unregisterTool("slow_cached_tool");
+        }
+    }
+
+    @Test
+    public void testPreEncodedResultAcceptsNullValues() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("content", List.of());
+        value.put("structuredContent", null);
+
+        PreEncodedResult result = new PreEncodedResult(value, "{\"content\":[],\"structuredContent\":null}");
+
+        assertTrue(result.containsKey("structuredContent"));
+        assertNull(result.get("structuredContent"));
+    }
+
+    @Test
+    public void testInvalidToolArguments() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/call");
+        request.setParams(Map.of("name", "calculator", "arguments", Map.of("operation", "power", "a", "two")));
+        request.setId(13);
+
+        JsonRpcResponse response = mcpService.handleRequest(request);
+
+        assertNotNull(response.getError());
+        assertEquals(-32602, response.getError().getCode());
+        @SuppressWarnings("unchecked")
+        List<String> violations = (List<String>) ((Map<String, Object>) response.getError().getData()).get("violations");
+        assertEquals(3, violations.size());
+        assertTrue(violations.contains("arguments.b is required"));
+    }
+
+    @Test
+    public void testNullArgumentIsTypeChecked() {
+        mcpRegistry.registerTool(MCPTool.builder().name("nullable_tool")
+                .inputSchema(Map.of("type", "object", "properties", Map.of(
+                        "expression", Map.of("type", "string"),
+                        "note", Map.of("type", List.of("string", "null")))))
+                .build(), arguments -> "ok");
+        try {
+            Map<String, Object> arguments = new HashMap<>();
+            arguments.put("expression", null);
+            arguments.put("note", null);
+            List<String> violations = mcpRegistry.getTool("nullable_tool").validator().validate(arguments);
+            assertEquals(List.of("arguments.expression must be of type string"), violations);
+
+            // A required property sent as null is present, and only its type is wrong
+            Map<String, Object> required = new HashMap<>();
+            required.put("operation", null);
+            required.put("a", 1);
+            required.put("b", 2);
+            assertEquals(List.of("arguments.operation must be of type string", "arguments.operation must be one of [add, subtract, multiply, divide]"),
+                    mcpRegistry.getTool("calculator").validator().validate(required));
+        } finally {
+            mcpRegistry.unregisterTool("nullable_tool");
+        }
+    }
+
+    @Test
+    public void testValidationTimersRemovedWithTool() {
+        mcpRegistry.registerTool(MCPTool.builder().name("short_lived_tool")
+                .inputSchema(Map.of("type", "object", "required", List.of("text"))).build(), arguments -> "ok");
+        try {
+            assertEquals(2, meterRegistry.find("mcp.tools.validation").tag("tool", "short_lived_tool").timers().size());
+        } finally {
+            assertTrue(mcpRegistry.unregisterTool("short_lived_tool"));
+        }
+        assertTrue(meterRegistry.find("mcp.tools.validation").tag("tool", "short_lived_tool").timers().isEmpty());
+        // Other tools keep theirs
+        assertFalse(meterRegistry.find("mcp.tools.validation").tag("tool", "calculator").timers().isEmpty());
+    }
+
+    @Test
+    public void testPromptMissingRequiredArgument() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("prompts/get");
+        request.setParams(Map.of("name", "code_review", "arguments", Map.of("language", "java")));
+        request.setId(14);
+
+        JsonRpcResponse response = mcpService.handleRequest(request);
+
+        assertEquals(-32602, response.getError().getCode());
+    }
+
+    @Test
+    public void testPromptTemplateHotReload(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("greeting.md");
+        Files.writeString(file, "---\ndescription: Greet someone\n---\nHello {{name:world}}!\n");
+        MCPProperties properties = new MCPProperties();
+        properties.getPrompts().setDirectory(directory.toString());
+        PromptTemplateLoader loader = new PromptTemplateLoader(mcpRegistry, resourcePatternResolver, properties);
+        loader.afterSingletonsInstantiated();
+        try {
+            assertEquals("Hello world!", mcpRegistry.getPrompt("greeting").renderer().render(Map.of()));
+
+            Files.writeString(file, "Hi {{name}}, welcome back.");
+            long deadline = System.currentTimeMillis() + 10_000;
+            String rendered;
+            do {
+                Thread.sleep(100);
+                rendered = mcpRegistry.getPrompt("greeting").renderer().render(Map.of("name", "Ada"));
+            } while (!rendered.startsWith("Hi") && System.currentTimeMillis() < deadline);
+            assertEquals("Hi Ada, welcome back.", rendered);
+        } finally {
+            loader.destroy();
+            mcpRegistry.unregisterPrompt("greeting");
+        }
+    }
+
+    @Test
+    public void testGetPromptWithoutFrontMatter(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("bare.md"), "Summarize {{topic:the news}}.");
+        MCPProperties properties = new MCPProperties();
+        properties.getPrompts().setDirectory(directory.toString());
+        properties.getPrompts().setWatch(false);
+        PromptTemplateLoader loader = new PromptTemplateLoader(mcpRegistry, resourcePatternResolver, properties);
+        loader.afterSingletonsInstantiated();
+        try {
+            JsonRpcRequest request = new JsonRpcRequest();
+            request.setMethod("prompts/get");
+            request.setParams(Map.of("name", "bare"));
+            request.setId(15);
+
+            JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(mcpService.handleRequest(request)));
+
+            assertFalse(json.has("error"), json.toString());
+            assertFalse(json.get("result").has("description"));
+            assertEquals("Summarize the news.", json.get("result").get("messages").get(0).get("content").get("text").asText());
+        } finally {
+            loader.destroy();
+            mcpRegistry.unregisterPrompt("bare");
+        }
+    }
+
+    @Test
+    public void testSubscribeAfterSessionRemovedIsRefused() {
+        ResourceSubscriptions subscriptions = new ResourceSubscriptions(new SimpleAsyncTaskScheduler(), event -> { }, new MCPProperties());
+        subscriptions.openSession("s1");
+        subscriptions.subscribe("s1", "resource://test/a");
+        assertEquals(1, subscriptions.subscriberCount("resource://test/a"));
+
+        subscriptions.removeSession("s1");
+        assertThrows(MCPException.class, () -> subscriptions.subscribe("s1", "resource://test/b"));
+        assertEquals(0, subscriptions.subscriberCount("resource://test/a"));
+        assertEquals(0, subscriptions.subscriberCount("resource://test/b"));
+    }
+
+    @Test
+    public void testChunkedFileResource(@TempDir Path directory) throws Exception {
+        String content = "第一行 log line\n第二行 ünïcödé\n" + "x".repeat(50);
+        Path file = Files.writeString(directory.resolve("app.log"), content);
+        String uri = "file://test/app.log";
+        mcpRegistry.registerResource(MCPResource.builder().uri(uri).name("app.log").mimeType("text/plain").build(),
+                new MappedFileResourceReader(file, "text/plain", 10));
+        try {
+            StringBuilder text = new StringBuilder();
+            String cursor = null;
+            int chunks = 0;
+            do {
+                JsonRpcRequest request = new JsonRpcRequest();
+                request.setMethod("resources/read");
+                request.setParams(cursor == null ? Map.of("uri", uri) : Map.of("uri", uri, "cursor", cursor));
+                request.setId(15);
+                JsonRpcResponse response = mcpService.handleRequest(request);
+                assertNull(response.getError());
+
+                JsonNode result = objectMapper.readTree(objectMapper.writeValueAsString(response)).get("result");
+                text.append(result.get("contents").get(0).get("text").asText());
+                cursor = result.has("nextCursor") ? result.get("nextCursor").asText() : null;
+                chunks++;
+            } while (cursor != null);
+
+            assertEquals(content, text.toString());
+            assertTrue(chunks > 1);
+        } finally {
+            mcpRegistry.unregisterResource(uri);
+        }
+    }
+
+    @Test
+    public void testChunkSurvivesFileTruncation(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("rotating.log"), "y".repeat(64 * 1024));
+        MappedFileResourceReader reader = new MappedFileResourceReader(file, "text/plain", 16 * 1024);
+        ResourceChunk chunk = reader.readRange("file://test/rotating.log", 32 * 1024, 0);
+
+        // Log rotation truncates the file after the chunk was read but before it is serialized
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        }
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(chunk));
+        assertEquals("y".repeat(16 * 1024), json.get("text").asText());
+        MCPException e = assertThrows(MCPException.class, () -> reader.readRange("file://test/rotating.log", 32 * 1024, 0));
+        assertEquals(-32602, e.getCode());
+    }
+
+    @Test
+    public void testCatalogPagination() throws Exception {
+        for (int i = 0; i < 150; i++) {
+            mcpRegistry.registerTool(MCPTool.builder().name("paged_" + i).build(), arguments -> "ok");
+        }
+        try {
+            Set<String> names = new HashSet<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                JsonRpcRequest request = new JsonRpcRequest();
+                request.setMethod("tools/list");
+                request.setParams(cursor == null ? Map.of() : Map.of("cursor", cursor));
+                request.setId(16);
+                JsonNode result = objectMapper.readTree(objectMapper.writeValueAsString(mcpService.handleRequest(request).getResult()));
+                result.get("tools").forEach(tool -> names.add(tool.get("name").asText()));
+                cursor = result.has("nextCursor") ? result.get("nextCursor").asText() : null;
+                pages++;
+            } while (cursor != null);
+
+            assertTrue(pages >= 2);
+            for (int i = 0; i < 150; i++) {
+                assertTrue(names.contains("paged_" + i));
+            }
+        } finally {
+            for (int i = 0; i < 150; i++) {
+                mcpRegistry.unregisterTool("paged_" + i);
+            }
+        }
+    }
+
+    @Test
+    public void testResourceTemplateRouting() throws Exception {
+        mcpRegistry.registerResourceTemplate(MCPResourceTemplate.builder()
+                        .uriTemplate("resource://db/{table}/{id}").name("Row").mimeType("application/json").build(),
+                (uri, variables) -> variables.get("table") + "#" + variables.get("id"));
+        mcpRegistry.registerResourceTemplate(MCPResourceTemplate.builder()
+                        .uriTemplate("resource://db/users/me").name("Current user").build(),
+                (uri, variables) -> "me");
+        try {
+            assertEquals("orders#42", readText("resource://db/orders/42"));
+            assertEquals("me", readText("resource://db/users/me"));
+            assertEquals("users#7", readText("resource://db/users/7"));
+
+            JsonRpcRequest list = new JsonRpcRequest();
+            list.setMethod("resources/templates/list");
+            list.setId(17);
+            JsonNode templates = objectMapper.readTree(objectMapper.writeValueAsString(mcpService.handleRequest(list).getResult())).get("resourceTemplates");
+            assertEquals(2, templates.size());
+        } finally {
+            mcpRegistry.unregisterResourceTemplate("resource://db/{table}/{id}");
+            mcpRegistry.unregisterResourceTemplate("resource://db/users/me");
+        }
+    }
+
+    private String readText(String uri) {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("resources/read");
+        request.setParams(Map.of("uri", uri));
+        request.setId(18);
+        JsonRpcResponse response = mcpService.handleRequest(request);
+        assertNull(response.getError());
+        return objectMapper.valueToTree(response.getResult()).get("contents").get(0).get("text").asText();
+    }
+
+    @Test
+    public void testToolBulkheadTimeoutAndRejection() throws Exception {
+        MCPProperties.Bulkhead limits = new MCPProperties.Bulkhead();
+        limits.setMaxConcurrency(1);
+        limits.setQueueDepth(0);
+        limits.setTimeout(Duration.ofMillis(300));
+        mcpProperties.getToolExecution().getTools().put("blocking_tool", limits);
+        CountDownLatch release = new CountDownLatch(1);
+        mcpRegistry.registerTool(MCPTool.builder().name("blocking_tool").build(), arguments -> {
+            release.await();
+            return "done";
+        });
+        try {
+            CompletableFuture<JsonRpcResponse> first = CompletableFuture.supplyAsync(() -> mcpService.handleRequest(callTool("blocking_tool", 20)));
+            Thread.sleep(100);
+
+            JsonRpcResponse rejected = mcpService.handleRequest(callTool("blocking_tool", 21));
+            assertEquals(-32002, rejected.getError().getCode());
+            assertEquals(-32001, first.get().getError().getCode());
+        } finally {
+            release.countDown();
+            mcpRegistry.unregisterTool("blocking_tool");
+            mcpProperties.getToolExecution().getTools().remove("blocking_tool");
+        }
+
+        // Unregistering released the bulkhead, so a tool registered again under the name gets the defaults
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        mcpRegistry.registerTool(MCPTool.builder().name("blocking_tool").build(), arguments -> {
+            bothRunning.countDown();
+            bothRunning.await();
+            return "done";
+        });
+        try {
+            CompletableFuture<JsonRpcResponse> first = CompletableFuture.supplyAsync(() -> mcpService.handleRequest(callTool("blocking_tool", 22)));
+            assertNull(mcpService.handleRequest(callTool("blocking_tool", 23)).getError());
+            assertNull(first.get().getError());
+        } finally {
+            mcpRegistry.unregisterTool("blocking_tool");
+        }
+    }
+
+    @Test
+    public void testAsyncToolCallDoesNotHoldTheCaller() throws Exception {
+        MCPProperties.Bulkhead limits = new MCPProperties.Bulkhead();
+        limits.setTimeout(Duration.ofMillis(300));
+        mcpProperties.getToolExecution().getTools().put("async_blocking_tool", limits);
+        CountDownLatch release = new CountDownLatch(1);
+        mcpRegistry.registerTool(MCPTool.builder().name("async_blocking_tool").build(), arguments -> {
+            release.await();
+            return "done";
+        });
+        try {
+            // Returns while the tool is still blocked, then times out on the timer
+            CompletableFuture<JsonRpcResponse> timedOut = mcpService.handleRequestAsync(callTool("async_blocking_tool", 40),
+                    MCPRequestContext.HTTP_REQUEST);
+            assertFalse(timedOut.isDone());
+            assertEquals(JsonRpcError.REQUEST_TIMEOUT, timedOut.get(5, TimeUnit.SECONDS).getError().getCode());
+
+            CompletableFuture<JsonRpcResponse> completed = mcpService.handleRequestAsync(callTool("async_blocking_tool", 41),
+                    MCPRequestContext.HTTP_REQUEST);
+            assertFalse(completed.isDone());
+            release.countDown();
+            JsonRpcResponse response = completed.get(5, TimeUnit.SECONDS);
+            assertNull(response.getError());
+            assertEquals(41, response.getId());
+        } finally {
+            release.countDown();
+            mcpRegistry.unregisterTool("async_blocking_tool");
+            mcpProperties.getToolExecution().getTools().remove("async_blocking_tool");
+        }
+    }
+
+    @Test
+    public void testRequestWithoutIdIsNotAnswered() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/list");
+
+        assertNull(mcpService.handleRequest(request));
+    }
+
+    @Test
+    public void testStreamedToolProgressAndContent() throws Exception {
+        mcpRegistry.registerTool(MCPTool.builder().name("counting_tool").build(), new CountingTool());
+        try {
+            // Without a progress token every chunk lands in the final result
+            JsonRpcResponse plain = mcpService.handleRequest(callTool("counting_tool", 30));
+            JsonNode content = objectMapper.readTree(objectMapper.writeValueAsString(plain.getResult())).get("content");
+            assertEquals(List.of("chunk 1", "chunk 2", "chunk 3"), List.of(content.get(0).get("text").asText(),
+                    content.get(1).get("text").asText(), content.get(2).get("text").asText()));
+            assertEquals(3, content.size());
+
+            // With a token, the NDJSON stream carries progress and chunks ahead of a response without them
+            String body = "{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":31,"
+                    + "\"params\":{\"name\":\"counting_tool\",\"_meta\":{\"progressToken\":\"job-1\"}}}";
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            mcpBatchService.handleStreamingBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+                lines.add(objectMapper.readTree(line));
+            }
+            assertEquals(7, lines.size());
+            assertEquals("notifications/progress", lines.get(0).get("method").asText());
+            assertEquals("job-1", lines.get(0).get("params").get("progressToken").asText());
+            assertEquals(3, lines.get(0).get("params").get("total").asInt());
+            assertEquals("notifications/tools/content", lines.get(1).get("method").asText());
+            assertEquals("chunk 1", lines.get(1).get("params").get("content").get(0).get("text").asText());
+            JsonNode response = lines.get(6);
+            assertEquals(31, response.get("id").asInt());
+            assertEquals(0, response.get("result").get("content").size());
+        } finally {
+            mcpRegistry.unregisterTool("counting_tool");
+        }
+    }
+
+    /**
+     * Emits three chunks, reporting progress before each
+     */
+    private static final class CountingTool implements MCPToolHandler {
+
+        @Override
+        public Object execute(Map<String, Object> arguments) {
+            return execute(arguments, new ToolProgress() {
+                @Override
+                public void progress(double progress, Double total, String message) {
+                }
+
+                @Override
+                public void content(String text) {
+                }
+            });
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments, ToolProgress progress) {
+            for (int i = 1; i <= 3; i++) {
+                progress.progress(i - 1, 3.0, "step " + i);
+                progress.content("chunk " + i);
+            }
+            return null;
+        }
+    }
+
+    @Test
+    public void testRequestMetrics() {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/call");
+        request.setParams(Map.of("name", "get_current_time", "arguments", Map.of()));
+        request.setId(40);
+        mcpService.handleRequest(request);
+        mcpService.handleRequest(callTool("no_such_tool", 41));
+
+        Timer timer = meterRegistry.find("mcp.requests")
+                .tags("method", "tools/call", "tool", "get_current_time", "transport", "http", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+
+        // Unregistered tool names are not used as tag values
+        assertNull(meterRegistry.find("mcp.requests").tag("tool", "no_such_tool").timer());
+        Counter errors = meterRegistry.find("mcp.requests.errors")
+                .tags("method", "tools/call", "transport", "http", "code", "-32603")
+                .counter();
+        assertNotNull(errors);
+        assertTrue(errors.count() >= 1);
+        assertEquals(0, meterRegistry.get("mcp.requests.active").tag("transport", "http").gauge().value());
+    }
+
+    private JsonRpcRequest callTool(String name, int id) {
+        JsonRpcRequest request = new JsonRpcRequest();
+        request.setMethod("tools/call");
+        request.setParams(Map.of("name", name, "arguments", Map.of()));
+        request.setId(id);
+        return request;
+    }
 }
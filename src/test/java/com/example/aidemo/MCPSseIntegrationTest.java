@@ -0,0 +1,123 @@
+package com.example.aidemo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the MCP HTTP+SSE transport
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MCPSseIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * A connected event stream, parsed into events as lines arrive
+     */
+    private final class EventStream {
+        private final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+
+        private EventStream(String query, Long lastEventId) throws Exception {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mcp/sse" + query))
+                    .header("Accept", "text/event-stream");
+            if (lastEventId != null) {
+                request.header("Last-Event-ID", lastEventId.toString());
+            }
+            HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+            Thread reader = new Thread(() -> {
+                Map<String, String> event = new LinkedHashMap<>();
+                for (String line : (Iterable<String>) response.body()::iterator) {
+                    if (line.isEmpty()) {
+                        if (!event.isEmpty()) {
+                            events.add(event);
+                        }
+                        event = new LinkedHashMap<>();
+                    } else if (!line.startsWith(":")) {
+                        int colon = line.indexOf(':');
+                        event.merge(line.substring(0, colon), line.substring(colon + 1), (a, b) -> a + "\n" + b);
+                    }
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private Map<String, String> next() throws InterruptedException {
+            Map<String, String> event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event received");
+            return event;
+        }
+    }
+
+    private int post(String endpoint, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    public void testRequestOverSse() throws Exception {
+        EventStream stream = new EventStream("", null);
+        Map<String, String> endpoint = stream.next();
+        assertEquals("endpoint", endpoint.get("event"));
+        assertTrue(endpoint.get("data").startsWith("/mcp/message?sessionId="));
+
+        assertEquals(202, post(endpoint.get("data"), "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}"));
+        Map<String, String> message = stream.next();
+        assertEquals("message", message.get("event"));
+        assertEquals("1", message.get("id"));
+        JsonNode response = objectMapper.readTree(message.get("data"));
+        assertEquals(1, response.get("id").asInt());
+        assertTrue(response.get("result").has("tools"));
+    }
+
+    @Test
+    public void testResumeReplaysMissedEvents() throws Exception {
+        EventStream stream = new EventStream("", null);
+        String endpoint = stream.next().get("data");
+        post(endpoint, "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}");
+        assertEquals("1", stream.next().get("id"));
+
+        String sessionId = endpoint.substring(endpoint.indexOf('=') + 1);
+        post(endpoint, "{\"jsonrpc\":\"2.0\",\"method\":\"prompts/list\",\"id\":2}");
+        Thread.sleep(200);
+
+        // Reconnecting after event 1 replays the response that was sent in between
+        EventStream resumed = new EventStream("?sessionId=" + sessionId, 1L);
+        assertEquals("endpoint", resumed.next().get("event"));
+        Map<String, String> replayed = resumed.next();
+        assertEquals("2", replayed.get("id"));
+        assertEquals(2, objectMapper.readTree(replayed.get("data")).get("id").asInt());
+    }
+
+    @Test
+    public void testUnknownSession() throws Exception {
+        assertEquals(404, post("/mcp/message?sessionId=missing", "{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}"));
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.aidemo;
+
+import com.example.aidemo.mcp.handler.MCPWebSocketSessionManager;
+import com.example.aidemo.mcp.model.MCPResource;
+import com.example.aidemo.mcp.model.MCPTool;
+import com.example.aidemo.mcp.service.MCPRegistry;
+import com.example.aidemo.mcp.service.MCPToolHandler;
+import com.example.aidemo.mcp.service.ResourceSubscriptions;
+import com.example.aidemo.mcp.service.ToolProgress;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the MCP WebSocket transport
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MCPWebSocketIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MCPRegistry mcpRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceSubscriptions subscriptions;
+
+    @Autowired
+    private MCPWebSocketSessionManager sessionManager;
+
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private WebSocketSession session;
+
+    @BeforeEach
+    public void connect() throws Exception {
+        session = new StandardWebSocketClient()
+                .execute(new AbstractWebSocketHandler() {
+                    @Override
+                    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                        received.add(message.getPayload());
+                    }
+
+                    @Override
+                    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                        received.add("binary:" + StandardCharsets.UTF_8.decode(message.getPayload()));
+                    }
+                }, "ws://localhost:" + port + "/mcp/ws")
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void disconnect() throws Exception {
+        session.close();
+    }
+
+    private JsonNode receive() throws Exception {
+        String payload = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(payload, "no message received");
+        return objectMapper.readTree(payload);
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":" + i + "}"));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 1; i <= 10; i++) {
+            JsonNode response = receive();
+            assertTrue(response.has("result"));
+            ids.add(response.get("id").asInt());
+        }
+        assertEquals(10, ids.size());
+    }
+
+    @Test
+    public void testBinaryFrame() throws Exception {
+        byte[] request = "{\"jsonrpc\":\"2.0\",\"method\":\"prompts/list\",\"id\":42}".getBytes(StandardCharsets.UTF_8);
+        session.sendMessage(new BinaryMessage(request));
+
+        String payload = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(payload);
+        assertTrue(payload.startsWith("binary:"));
+        JsonNode response = objectMapper.readTree(payload.substring("binary:".length()));
+        assertEquals(42, response.get("id").asInt());
+        assertTrue(response.get("result").has("prompts"));
+
+        // A later text request is still answered with a text frame
+        session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"prompts/list\",\"id\":43}"));
+        String next = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next);
+        assertFalse(next.startsWith("binary:"));
+        assertEquals(43, objectMapper.readTree(next).get("id").asInt());
+    }
+
+    @Test
+    public void testParseError() throws Exception {
+        session.sendMessage(new TextMessage("not json"));
+
+        assertEquals(-32700, receive().get("error").get("code").asInt());
+    }
+
+    @Test
+    public void testListChangedNotification() throws Exception {
+        // Round trip first so the server has registered the session
+        session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"initialize\",\"id\":1}"));
+        receive();
+
+        mcpRegistry.registerTool(MCPTool.builder().name("ws_echo").build(), arguments -> arguments);
+        try {
+            JsonNode notification = receive();
+            assertEquals("notifications/tools/list_changed", notification.get("method").asText());
+            assertFalse(notification.has("id"));
+        } finally {
+            mcpRegistry.unregisterTool("ws_echo");
+        }
+    }
+
+    @Test
+    public void testResourceSubscriptionCoalescesUpdates() throws Exception {
+        String uri = "resource://test/counter";
+        mcpRegistry.registerResource(MCPResource.builder().uri(uri).name("Counter").mimeType("text/plain").build(), u -> "0");
+        try {
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"resources/subscribe\",\"id\":1,\"params\":{\"uri\":\"" + uri + "\"}}"));
+            JsonNode response = receive();
+            while (!response.has("id")) {
+                // Skip the list_changed sent for the registration
+                response = receive();
+            }
+            assertTrue(response.has("result"));
+
+            for (int i = 0; i < 5; i++) {
+                subscriptions.resourceUpdated(uri);
+            }
+
+            JsonNode notification = receive();
+            assertEquals("notifications/resources/updated", notification.get("method").asText());
+            assertEquals(uri, notification.get("params").get("uri").asText());
+            assertNull(received.poll(500, TimeUnit.MILLISECONDS), "burst should produce a single notification");
+
+            session.close();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (subscriptions.subscriberCount(uri) > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, subscriptions.subscriberCount(uri));
+        } finally {
+            mcpRegistry.unregisterResource(uri);
+        }
+    }
+
+    @Test
+    public void testCancelRunningToolCall() throws Exception {
+        mcpRegistry.registerTool(MCPTool.builder().name("sleepy_tool").build(), arguments -> {
+            Thread.sleep(10_000);
+            return "woke up";
+        });
+        try {
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":5,\"params\":{\"name\":\"sleepy_tool\"}}"));
+            Thread.sleep(200);
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"notifications/cancelled\",\"params\":{\"requestId\":5,\"reason\":\"user abort\"}}"));
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"initialize\",\"id\":6}"));
+
+            JsonNode response = receive();
+            while (!response.has("id")) {
+                response = receive();
+            }
+            // The cancelled call gets no response
+            assertEquals(6, response.get("id").asInt());
+            String next;
+            while ((next = received.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                assertFalse(objectMapper.readTree(next).path("id").asInt() == 5, "cancelled call must not be answered");
+            }
+        } finally {
+            mcpRegistry.unregisterTool("sleepy_tool");
+        }
+    }
+
+    @Test
+    public void testStreamedToolContentOverWebSocket() throws Exception {
+        mcpRegistry.registerTool(MCPTool.builder().name("chatty_tool").build(), new MCPToolHandler() {
+            @Override
+            public Object execute(Map<String, Object> arguments) {
+                return "done";
+            }
+
+            @Override
+            public Object execute(Map<String, Object> arguments, ToolProgress progress) {
+                progress.progress(1, 2.0, null);
+                progress.content("partial");
+                return "done";
+            }
+        });
+        try {
+            session.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"tools/call\",\"id\":7,"
+                    + "\"params\":{\"name\":\"chatty_tool\",\"_meta\":{\"progressToken\":42}}}"));
+
+            JsonNode progress = receive();
+            while (!"notifications/progress".equals(progress.path("method").asText())) {
+                progress = receive();
+            }
+            assertEquals(42, progress.get("params").get("progressToken").asInt());
+            JsonNode partial = receive();
+            assertEquals("notifications/tools/content", partial.get("method").asText());
+            assertEquals("partial", partial.get("params").get("content").get(0).get("text").asText());
+
+            JsonNode response = receive();
+            assertEquals(7, response.get("id").asInt());
+            assertEquals("done", response.get("result").get("content").get(0).get("text").asText());
+        } finally {
+            mcpRegistry.unregisterTool("chatty_tool");
+        }
+    }
+
+    @Test
+    public void testBroadcastReachesEverySession() throws Exception {
+        BlockingQueue<String> fanOut = new LinkedBlockingQueue<>();
+        List<WebSocketSession> clients = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clients.add(new StandardWebSocketClient()
+                    .execute(new AbstractWebSocketHandler() {
+                        @Override
+                        protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                            fanOut.add(message.getPayload());
+                        }
+                    }, "ws://localhost:" + port + "/mcp/ws")
+                    .get(5, TimeUnit.SECONDS));
+        }
+        try {
+            // The client sees the handshake complete before the server registers the session; a reply proves it did
+            for (WebSocketSession client : clients) {
+                client.sendMessage(new TextMessage("{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":1}"));
+            }
+            for (int i = 0; i < 20; i++) {
+                assertNotNull(fanOut.poll(5, TimeUnit.SECONDS), "every session should answer");
+            }
+            assertTrue(sessionManager.getSessionCount() >= 20);
+            mcpRegistry.registerTool(MCPTool.builder().name("fan_out_tool").build(), arguments -> "ok");
+            for (int i = 0; i < 20; i++) {
+                String payload = fanOut.poll(5, TimeUnit.SECONDS);
+                assertNotNull(payload, "every session should get the notification");
+                assertEquals("notifications/tools/list_changed", objectMapper.readTree(payload).get("method").asText());
+            }
+        } finally {
+            mcpRegistry.unregisterTool("fan_out_tool");
+            for (WebSocketSession client : clients) {
+                client.close();
+            }
+        }
+        // Closed sessions are unregistered
+        for (int i = 0; i < 50 && sessionManager.getSessionCount() > 1; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(sessionManager.getSessionCount() <= 1);
+    }
+}
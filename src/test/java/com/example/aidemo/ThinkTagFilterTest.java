@@ -0,0 +1,46 @@
+package com.example.aidemo;
+
+import com.example.aidemo.advisor.ThinkTagFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the streaming think-tag filter
+ */
+public class ThinkTagFilterTest {
+
+    private static String stream(String... chunks) {
+        ThinkTagFilter filter = new ThinkTagFilter();
+        StringBuilder out = new StringBuilder();
+        for (String chunk : chunks) {
+            out.append(filter.filter(chunk));
+        }
+        return out.append(filter.flush()).toString();
+    }
+
+    @Test
+    public void testStripsThinkBlock() {
+        assertEquals("Hello world", ThinkTagFilter.strip("<think>reasoning\n</think>\n\nHello world"));
+        assertEquals("a b", ThinkTagFilter.strip("a <think>x</think> b"));
+        assertEquals("no tags <b>here</b>", ThinkTagFilter.strip("no tags <b>here</b>"));
+    }
+
+    @Test
+    public void testTagsSplitAcrossChunks() {
+        assertEquals("Answer", stream("<th", "ink>rea", "soning</th", "in", "k>  ", " Ans", "wer"));
+        assertEquals("x<<thin y", stream("x<", "<thin", " y"));
+        assertEquals("a<", stream("a<think>b</thin", "", "k><"));
+    }
+
+    @Test
+    public void testVisibleTextIsEmittedImmediately() {
+        ThinkTagFilter filter = new ThinkTagFilter();
+        assertEquals("", filter.filter("<think>still thinking"));
+        assertEquals("", filter.filter("</think>\n"));
+        assertEquals("Hi", filter.filter("Hi"));
+        // Only a possible tag prefix is held back, and released at the end of the stream
+        assertEquals("ok ", filter.filter("ok <thi"));
+        assertEquals("<thi", filter.flush());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.aidemo;
+
+import com.example.aidemo.advisor.TokenBudgetChatMemoryAdvisor;
+import com.example.aidemo.memory.ChatMemoryProperties;
+import com.example.aidemo.memory.TokenWindowChatMemory;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the token-budget chat memory advisor
+ */
+public class TokenBudgetChatMemoryAdvisorTest {
+
+    private final ChatMemoryProperties properties = new ChatMemoryProperties();
+    private final TokenWindowChatMemory memory = new TokenWindowChatMemory(properties);
+    private final TokenBudgetChatMemoryAdvisor advisor = new TokenBudgetChatMemoryAdvisor(memory, properties);
+
+    /**
+     * Stream the prompt through the advisor and return the messages the model would have received
+     */
+    private List<String> promptSentWith(String conversationId, Integer tokenBudget) {
+        Map<String, Object> context = new HashMap<>();
+        context.put(ChatMemory.CONVERSATION_ID, conversationId);
+        if (tokenBudget != null) {
+            context.put(TokenBudgetChatMemoryAdvisor.TOKEN_BUDGET, tokenBudget);
+        }
+        ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt("新问题")).context(context).build();
+        AtomicReference<ChatClientRequest> sent = new AtomicReference<>();
+        StreamAdvisorChain chain = new StreamAdvisorChain() {
+            @Override
+            public Flux<ChatClientResponse> nextStream(ChatClientRequest chatClientRequest) {
+                sent.set(chatClientRequest);
+                return Flux.just(ChatClientResponse.builder()
+                        .chatResponse(new ChatResponse(List.of(new Generation(new AssistantMessage("回答")))))
+                        .context(chatClientRequest.context())
+                        .build());
+            }
+
+            @Override
+            public List<StreamAdvisor> getStreamAdvisors() {
+                return List.of();
+            }
+        };
+        advisor.adviseStream(request, chain).blockLast();
+        return sent.get().prompt().getInstructions().stream().map(Message::getText).toList();
+    }
+
+    private void remember(String conversationId) {
+        // 4 + 4 tokens each
+        memory.add(conversationId, List.of(new UserMessage("一二三四"), new AssistantMessage("五六七八")));
+        memory.add(conversationId, new UserMessage("九十"));
+    }
+
+    @Test
+    public void testTokenBudgetLimitsHistoryInPrompt() {
+        remember("small");
+        remember("large");
+        remember("unbudgeted");
+
+        assertEquals(List.of("九十", "新问题"), promptSentWith("small", 10));
+        assertEquals(List.of("五六七八", "九十", "新问题"), promptSentWith("large", 14));
+        assertEquals(List.of("一二三四", "五六七八", "九十", "新问题"), promptSentWith("unbudgeted", null));
+        // The budget only shapes the prompt; memory keeps the whole conversation
+        assertEquals(List.of("一二三四", "五六七八", "九十", "新问题"), memory.get("small").stream().limit(4).map(Message::getText).toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.aidemo;
+
+import com.example.aidemo.memory.ChatMemoryProperties;
+import com.example.aidemo.memory.TokenEstimator;
+import com.example.aidemo.memory.TokenWindowChatMemory;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the token-budget chat memory
+ */
+public class TokenWindowChatMemoryTest {
+
+    private static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+
+    @Test
+    public void testEstimate() {
+        assertEquals(0, TokenEstimator.estimate(""));
+        assertEquals(3, TokenEstimator.estimate("你好吗"));
+        // "hello" rounds up to 2 tokens, "世", "," and "!" count one each
+        assertEquals(5, TokenEstimator.estimate("hello, 世!"));
+        assertEquals(1000, TokenEstimator.estimate("x".repeat(4000)));
+    }
+
+    @Test
+    public void testSelectsMostRecentMessagesWithinBudget() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        TokenWindowChatMemory memory = new TokenWindowChatMemory(properties);
+        // 4 + 4 tokens each
+        memory.add("c", List.of(new UserMessage("一二三四"), new AssistantMessage("五六七八")));
+        memory.add("c", new UserMessage("九十"));
+
+        assertEquals(List.of("九十"), texts(memory.get("c", 10)));
+        assertEquals(List.of("五六七八", "九十"), texts(memory.get("c", 14)));
+        assertEquals(List.of("一二三四", "五六七八", "九十"), texts(memory.get("c")));
+        assertEquals(List.of(), memory.get("c", 5));
+        assertEquals(List.of(), memory.get("other", 100));
+
+        memory.clear("c");
+        assertEquals(List.of(), memory.get("c"));
+    }
+
+    @Test
+    public void testStoredMessagesAreCapped() {
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        properties.setMaxStoredMessages(2);
+        TokenWindowChatMemory memory = new TokenWindowChatMemory(properties);
+        memory.add("c", List.of(new UserMessage("a"), new AssistantMessage("b"), new UserMessage("c")));
+        assertEquals(List.of("b", "c"), texts(memory.get("c")));
+    }
+}